@@ -1,19 +1,39 @@
 package com.example.aiservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class AsyncConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${ai.task.max-concurrency:10}")
+    private int maxConcurrency;
+
+    // Gemini çağrıları (chunk başına bir HTTP isteği) bu executor'da bekler
     @Bean(name = "aiTaskExecutor")
     public Executor aiTaskExecutor() {
+        if (virtualThreads) {
+            // Her görev için yeni virtual thread; limit aşılınca çağıran bekler (Gemini kotası için)
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AiTask-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            executor.setTaskTerminationTimeout(60_000);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4); // Aynı anda çalışacak iş parçacığı sayısı
-        executor.setMaxPoolSize(10); // Maksimum iş parçacığı sayısı
+        executor.setMaxPoolSize(maxConcurrency); // Maksimum iş parçacığı sayısı
         executor.setQueueCapacity(50); // Kuyruk kapasitesi
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy()); // Kuyruk doluysa çağıran thread'de çalışır
         executor.setThreadNamePrefix("AiTask-"); // İş parçacığı isim ön eki
         executor.setWaitForTasksToCompleteOnShutdown(true); // Kapanırken görevlerin tamamlanmasını bekle
         executor.setAwaitTerminationSeconds(60); // Maksimum bekleme süresi
@@ -2,6 +2,8 @@ package com.example.aiservice.dto;
 
 import lombok.*;
 
+import java.util.List;
+
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -13,4 +15,5 @@ public class AIAnalysisRequest {
     private String analysisType;
     private String model;
     private String hash; //SHA-256 hash
+    private List<TransactionRowDto> rows; // Varsa mətn yenidən təhlil olunmur
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.aiservice.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// PDFProcessorService-in təhlil etdiyi əməliyyat sətri
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class TransactionRowDto {
+    private int rowIndex;
+    private int page;
+    private LocalDateTime occurredAt;
+    private String description;
+    private BigDecimal amount;
+    private BigDecimal fee;
+    private BigDecimal vat;
+    private BigDecimal balance;
+    private double confidence;
+}
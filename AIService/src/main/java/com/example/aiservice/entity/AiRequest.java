@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Builder
 public class AiRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_requests_seq")
+    @SequenceGenerator(name = "ai_requests_seq", sequenceName = "ai_requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "pdf_id")
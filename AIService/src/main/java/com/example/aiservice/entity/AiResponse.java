@@ -14,10 +14,11 @@ import java.time.LocalDateTime;
 @Builder
 public class AiResponse {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_responses_seq")
+    @SequenceGenerator(name = "ai_responses_seq", sequenceName = "ai_responses_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(cascade = CascadeType.PERSIST)
     @JoinColumn(name = "request_id", nullable = false)
     private AiRequest request;
 
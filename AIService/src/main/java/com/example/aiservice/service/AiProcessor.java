@@ -3,21 +3,27 @@ package com.example.aiservice.service;
 import com.example.aiservice.client.GeminiAIClient;
 import com.example.aiservice.dto.AIAnalysisRequest;
 import com.example.aiservice.dto.AIAnalysisResponse;
+import com.example.aiservice.dto.TransactionRowDto;
 import com.example.aiservice.entity.AiRequest;
 import com.example.aiservice.entity.AiResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -27,7 +33,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AiProcessor {
     private final GeminiAIClient geminiAIClient;
+    @Qualifier("aiTaskExecutor")
+    private final Executor aiTaskExecutor;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final DateTimeFormatter ROW_TIMESTAMP = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+    // splitContent tarix ilə məbləğ arasında boş olmayan təsvir tələb edir; təsvirsiz sətir itməsin
+    private static final String MISSING_DESCRIPTION = "N/A";
 
     @Value("${gemini.model}")
     private String model;
@@ -128,7 +139,7 @@ public class AiProcessor {
         }
     }
 
-    // Tək chunk-u emal edir
+    // Tək chunk-u emal edir; bloklayan Gemini çağırışı ForkJoin common pool-da yox, aiTaskExecutor-da gözləyir
     private CompletableFuture<String> processChunk(String chunk, String analysisType, int chunkIndex) {
         return CompletableFuture.supplyAsync(() -> {
             log.debug("Processing chunk {}", chunkIndex + 1);
@@ -173,7 +184,7 @@ public class AiProcessor {
                 log.error("Gemini AI request failed for chunk {}: {}", chunkIndex + 1, e.getMessage());
                 return "[]";
             }
-        });
+        }, aiTaskExecutor);
     }
 
     private String preprocessContent(String content) {
@@ -201,8 +212,33 @@ public class AiProcessor {
     }
 
 
+    // PDFProcessorService-dən gələn tipli sətirləri preprocessContent-in çıxış formatına salır
+    public String formatRows(List<TransactionRowDto> rows) {
+        List<String> processedLines = new ArrayList<>(rows.size());
+        for (TransactionRowDto row : rows) {
+            if (row.getOccurredAt() == null || row.getAmount() == null) {
+                log.debug("Skipping incomplete row {}", row.getRowIndex());
+                continue;
+            }
+            BigDecimal value = row.getAmount().setScale(2, RoundingMode.HALF_UP); // splitContent iki onluq rəqəm gözləyir
+            String amount = (value.signum() >= 0 ? "+" : "") + value.toPlainString();
+            String description = row.getDescription() == null || row.getDescription().isBlank()
+                    ? MISSING_DESCRIPTION : row.getDescription().strip().replaceAll("\\s+", " ");
+            processedLines.add(String.format("%s %s %s", ROW_TIMESTAMP.format(row.getOccurredAt()), description, amount));
+        }
+        log.info("Rows received: {}, usable: {}", rows.size(), processedLines.size());
+        return String.join("\n", processedLines);
+    }
+
     @Async("aiTaskExecutor")
     public CompletableFuture<AiResponse> processWithAi(String content, String analysisType, AiRequest aiRequest) {
+        return processWithAi(content, analysisType, aiRequest, false);
+    }
+
+    // preprocessed: content artıq formatRows ilə hazırlanıb, regex təhlili buraxılır
+    @Async("aiTaskExecutor")
+    public CompletableFuture<AiResponse> processWithAi(String content, String analysisType, AiRequest aiRequest,
+                                                       boolean preprocessed) {
         log.info("Processing content, length: {}, analysisType: {}", content != null ? content.length() : 0, analysisType);
         log.info("Input content: {}", content); // Log full input
 
@@ -220,7 +256,9 @@ public class AiProcessor {
 
         try {
             // 1. Məlumatı təmizlə
-            content = preprocessContent(content);
+            if (!preprocessed) {
+                content = preprocessContent(content);
+            }
             log.info("Preprocessed content, length: {}", content.length());
 
             // 2. Təmizlənmiş məlumatı chunk-lara böl
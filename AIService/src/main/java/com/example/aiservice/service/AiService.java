@@ -5,72 +5,60 @@ import com.example.aiservice.dto.AIAnalysisRequest;
 import com.example.aiservice.dto.AIAnalysisResponse;
 import com.example.aiservice.entity.AiRequest;
 import com.example.aiservice.entity.AiResponse;
-import com.example.aiservice.repository.AiRequestRepository;
 import com.example.aiservice.repository.AiResponseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
-import static org.springframework.transaction.annotation.Propagation.REQUIRED;
-
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AiService {
     private final PdfProcessorClient pdfProcessorClient;
     private final AiProcessor aiProcessor;
-    private final AiRequestRepository aiRequestRepository;
     private final AiResponseRepository aiResponseRepository;
 
-    @Transactional(propagation = REQUIRED)
+    // Sorğu və cavab sonda bir dəfə, bir tranzaksiyada yazılır (AiResponse.request cascade = PERSIST).
+    // Gemini çağırışı tranzaksiyadan kənardadır, yəni gözləmə zamanı DB bağlantısı tutulmur.
     @Cacheable(value = "aiAnalysis", key = "'ai:pdf:hash:' + #request.hash", unless = "#result == null || !#result.success")
     public AIAnalysisResponse analyzeText(AIAnalysisRequest request) {
         log.info("Mətn təhlili başlayır: pdfId={}, hash={}, analysisType={}",
                 request.getPdfId(), request.getHash(), request.getAnalysisType());
 
+        AiRequest aiRequest = AiRequest.builder()
+                .pdfId(String.valueOf(request.getPdfId()))
+                .extractedText(request.getExtractedText())
+                .analysisType(request.getAnalysisType())
+                .hash(request.getHash())
+                .requestDate(LocalDateTime.now())
+                .build();
         try {
-            // Sorğunu bazada saxlasın
-            AiRequest aiRequest = AiRequest.builder()
-                    .pdfId(String.valueOf(request.getPdfId()))
-                    .extractedText(request.getExtractedText())
-                    .analysisType(request.getAnalysisType())
-                    .hash(request.getHash())
-                    .requestDate(LocalDateTime.now())
-                    .build();
-            final AiRequest savedAiRequest = aiRequestRepository.save(aiRequest);
-
-            String textToAnalyze = request.getExtractedText();
-            if (textToAnalyze == null || textToAnalyze.trim().isEmpty()) {
+            // Tipli sətirlər gəlibsə mətn yenidən təhlil olunmur
+            boolean preprocessed = request.getRows() != null && !request.getRows().isEmpty();
+            String textToAnalyze = preprocessed ? aiProcessor.formatRows(request.getRows()) : request.getExtractedText();
+            if (!preprocessed && (textToAnalyze == null || textToAnalyze.trim().isEmpty())) {
                 log.debug("Çıxarılmış mətn boşdur, PDF məzmunu pdfId={} ilə alınır", request.getPdfId());
                 textToAnalyze = pdfProcessorClient.getPdfContent(String.valueOf(request.getPdfId()));
                 if (textToAnalyze == null) {
-                    AiResponse errorResponse = AiResponse.builder()
-                            .request(savedAiRequest)
-                            .success(false)
-                            .message("PDF məzmunu alınmadı")
-                            .createdAt(LocalDateTime.now())
-                            .build();
-                    aiResponseRepository.save(errorResponse);
+                    saveFailure(aiRequest, "PDF məzmunu alınmadı");
                     return new AIAnalysisResponse(false, null, "PDF məzmunu alınmadı");
                 }
-                savedAiRequest.setExtractedText(textToAnalyze);
-                aiRequestRepository.save(savedAiRequest);
             }
+            aiRequest.setExtractedText(textToAnalyze);
 
             // Asenkron çağrı
-            CompletableFuture<AiResponse> aiResponseFuture = aiProcessor.processWithAi(textToAnalyze, request.getAnalysisType(), savedAiRequest);
+            CompletableFuture<AiResponse> aiResponseFuture = aiProcessor.processWithAi(textToAnalyze, request.getAnalysisType(), aiRequest, preprocessed);
             AiResponse aiResponse = aiResponseFuture.join(); // Sinxron nəticəni gözləmək üçün
 
             if (aiResponse == null || !aiResponse.isSuccess()) {
                 aiResponse = AiResponse.builder()
-                        .request(savedAiRequest)
+                        .request(aiRequest)
                         .success(false)
                         .message("AI təhlili uğursuz oldu")
                         .createdAt(LocalDateTime.now())
@@ -94,15 +82,17 @@ public class AiService {
                     .hash(request.getHash())
                     .requestDate(LocalDateTime.now())
                     .build();
-            final AiRequest savedErrorRequest = aiRequestRepository.save(errorRequest);
-            AiResponse errorResponse = AiResponse.builder()
-                    .request(savedErrorRequest)
-                    .success(false)
-                    .message("Təhlil uğursuz oldu: " + e.getMessage())
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            aiResponseRepository.save(errorResponse);
+            saveFailure(errorRequest, "Təhlil uğursuz oldu: " + e.getMessage());
             return new AIAnalysisResponse(false, null, "Təhlil uğursuz oldu: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private void saveFailure(AiRequest aiRequest, String message) {
+        aiResponseRepository.save(AiResponse.builder()
+                .request(aiRequest)
+                .success(false)
+                .message(message)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,44 @@
+-- Dedupe sorğularının gecikməsini cədvəl ölçüsündən asılı olaraq ölçür.
+-- Hər ölçü üçün ayrıca işə salın və "Execution Time" dəyərlərini müqayisə edin:
+--
+--   for n in 1000 10000 100000 1000000; do
+--     psql -h localhost -p 5438 -U postgres -d pdf_processor -v rows=$n -f bench/dedupe-latency.sql
+--   done
+--
+-- Skript tranzaksiya daxilində işləyir və sonda ROLLBACK edir, bazada heç nə qalmır.
+
+\set ON_ERROR_STOP on
+\echo 'rows =' :rows
+
+BEGIN;
+
+INSERT INTO pdf_files (file_name, upload_date, extracted_text, minio_path, hash, file_hash, page_strategies)
+SELECT 'statement-' || (g % 5000) || '.pdf',
+       now() - (g || ' minutes')::interval,
+       repeat('01-01-2024 12:00:00 Kartdan karta köçürmə -12.50 0.00 0.00 100.00' || E'\n', 10) || g,
+       'bench/' || g || '.pdf',
+       encode(sha256(('text-' || g)::bytea), 'hex'),
+       encode(sha256(('file-' || g)::bytea), 'hex'),
+       'TEXT_LAYER'
+FROM generate_series(1, :rows) AS g;
+
+ANALYZE pdf_files;
+
+-- PdfRepository.findByFileHash (yükləmədən əvvəl, render/OCR-dan qabaq)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pdf_files WHERE file_hash = encode(sha256(('file-' || (:rows / 2))::bytea), 'hex');
+
+-- PdfRepository.findByHash (çıxarılmış mətnin hash-i)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pdf_files WHERE hash = encode(sha256(('text-' || (:rows / 2))::bytea), 'hex');
+
+-- PdfRepository.findByFileName
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pdf_files WHERE file_name = 'statement-42.pdf';
+
+-- Müqayisə üçün: silinmiş findByExtractedText sorğusu (TEXT bərabərliyi, ardıcıl skan)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pdf_files
+WHERE extracted_text = repeat('01-01-2024 12:00:00 Kartdan karta köçürmə -12.50 0.00 0.00 100.00' || E'\n', 10) || (:rows / 2);
+
+ROLLBACK;
@@ -0,0 +1,124 @@
+// Platform və virtual thread rejimlərində ötürmə qabiliyyəti və p99 gecikməsinin müqayisəsi (k6).
+// Servisi hər rejimdə ayrıca işə salın və eyni yükü verin:
+//
+//   ./gradlew bootRun --args='--spring.threads.virtual.enabled=false --pdf.ocr.cache.enabled=false --pdf.checkpoints.enabled=false'
+//   k6 run -e PDF=/path/statement.pdf -e LABEL=platform bench/pdf-load.js
+//
+//   ./gradlew bootRun --args='--spring.threads.virtual.enabled=true --pdf.ocr.cache.enabled=false --pdf.checkpoints.enabled=false'
+//   k6 run -e PDF=/path/statement.pdf -e LABEL=virtual bench/pdf-load.js
+//
+// Hər qaçış sonunda "bench/load-<LABEL>.json" yazılır və ssenari üzrə req/s və p99 çap olunur.
+// Ssenarilər:
+//   upload - /api/pdf/process; hər sorğuda faylın sonuna unikal şərh əlavə olunur ki, fayl hash-i
+//            dublikatı emalı qısaltmasın (mətn eynidir, yəni sənəd sonda mətn hash-i ilə dublikat çıxır).
+//            OCR keşi söndürülməlidir: səhifə şəkli hər sorğuda eynidir və keş açıq olsa ilk sorğudan sonra
+//            render/OCR işləmir. Checkpoint-lər də söndürülür: fayl hash-i hər sorğuda yenidir, onlar heç vaxt
+//            təkrar istifadə olunmur, amma hər OCR səhifəsi üçün bazaya yazı əlavə edib müqayisəni pozur.
+//            CPU ağırlıqlıdır, VU sayı kiçikdir.
+//   reads  - /api/pdf/all, /{id}/rows və /download/{id}; bloklayan JDBC/MinIO I/O, VU sayı böyükdür.
+// Parametrlər: BASE_URL (http://localhost:8081), UPLOAD_VUS (4), READ_VUS (200), DURATION (2m).
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const LABEL = __ENV.LABEL || 'run';
+const DURATION = __ENV.DURATION || '2m';
+const pdf = new Uint8Array(open(__ENV.PDF, 'b'));
+
+export const options = {
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    scenarios: {
+        upload: {
+            executor: 'constant-vus',
+            exec: 'upload',
+            vus: Number(__ENV.UPLOAD_VUS || 4),
+            duration: DURATION,
+            tags: { scenario: 'upload' },
+        },
+        reads: {
+            executor: 'ramping-vus',
+            exec: 'reads',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: Number(__ENV.READ_VUS || 200) },
+                { duration: DURATION, target: Number(__ENV.READ_VUS || 200) },
+            ],
+            tags: { scenario: 'reads' },
+        },
+    },
+    // Ssenari üzrə metriklərin xülasədə görünməsi üçün
+    thresholds: {
+        'http_req_duration{scenario:upload}': ['max>=0'],
+        'http_req_duration{scenario:reads}': ['max>=0'],
+        'http_reqs{scenario:upload}': ['count>=0'],
+        'http_reqs{scenario:reads}': ['count>=0'],
+        'http_req_failed{scenario:upload}': ['rate<0.05'],
+        'http_req_failed{scenario:reads}': ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const res = http.get(`${BASE_URL}/api/pdf/all?size=50`);
+    const ids = res.status === 200 ? res.json('items').map((item) => item.id) : [];
+    if (ids.length === 0) {
+        console.warn('Bazada PDF yoxdur: reads ssenarisi yalnız /api/pdf/all çağıracaq');
+    }
+    return { ids };
+}
+
+export function upload() {
+    const marker = ascii(`\n%k6-${LABEL}-${__VU}-${__ITER}-${Date.now()}\n`);
+    const body = new Uint8Array(pdf.length + marker.length);
+    body.set(pdf);
+    body.set(marker, pdf.length);
+    const res = http.post(`${BASE_URL}/api/pdf/process`, {
+        file: http.file(body.buffer, `k6-${__VU}-${__ITER}.pdf`, 'application/pdf'),
+    }, { timeout: '300s' });
+    check(res, { 'upload 200': (r) => r.status === 200 });
+}
+
+// k6-da TextEncoder yoxdur; şərh yalnız ASCII simvollardan ibarətdir
+function ascii(text) {
+    const bytes = new Uint8Array(text.length);
+    for (let i = 0; i < text.length; i++) {
+        bytes[i] = text.charCodeAt(i);
+    }
+    return bytes;
+}
+
+export function reads(data) {
+    const ids = data.ids;
+    if (ids.length === 0) {
+        http.get(`${BASE_URL}/api/pdf/all?size=50`);
+        return;
+    }
+    const id = ids[Math.floor(Math.random() * ids.length)];
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/pdf/all?size=50`],
+        ['GET', `${BASE_URL}/api/pdf/${id}/rows`],
+        ['GET', `${BASE_URL}/api/pdf/download/${id}`],
+    ]);
+    check(responses[2], { 'download 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    const seconds = data.state.testRunDurationMs / 1000;
+    const lines = [`[${LABEL}]`];
+    for (const scenario of ['upload', 'reads']) {
+        const reqs = data.metrics[`http_reqs{scenario:${scenario}}`];
+        const duration = data.metrics[`http_req_duration{scenario:${scenario}}`];
+        const failed = data.metrics[`http_req_failed{scenario:${scenario}}`];
+        if (!reqs || !duration) {
+            continue;
+        }
+        lines.push(`${scenario.padEnd(8)} ${(reqs.values.count / seconds).toFixed(2).padStart(9)} req/s`
+            + `  p50 ${duration.values['p(50)'].toFixed(0)} ms`
+            + `  p99 ${duration.values['p(99)'].toFixed(0)} ms`
+            + `  xəta ${((failed ? failed.values.rate : 0) * 100).toFixed(2)}%`);
+    }
+    return {
+        stdout: lines.join('\n') + '\n',
+        [`bench/load-${LABEL}.json`]: JSON.stringify(data, null, 2),
+    };
+}
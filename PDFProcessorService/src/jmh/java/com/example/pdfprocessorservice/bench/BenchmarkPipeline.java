@@ -0,0 +1,175 @@
+package com.example.pdfprocessorservice.bench;
+
+import com.example.pdfprocessorservice.config.AsyncConfig;
+import com.example.pdfprocessorservice.config.TesseractsConfig;
+import com.example.pdfprocessorservice.entity.PdfEntity;
+import com.example.pdfprocessorservice.repository.PageCheckpointRepository;
+import com.example.pdfprocessorservice.repository.PdfRepository;
+import com.example.pdfprocessorservice.repository.TransactionRowRepository;
+import com.example.pdfprocessorservice.service.MinioService;
+import com.example.pdfprocessorservice.service.OcrLanguageSelector;
+import com.example.pdfprocessorservice.service.OcrResultCache;
+import com.example.pdfprocessorservice.service.PageCheckpointStore;
+import com.example.pdfprocessorservice.service.PageStrategySelector;
+import com.example.pdfprocessorservice.service.PageTriage;
+import com.example.pdfprocessorservice.service.PdfProcessorService;
+import com.example.pdfprocessorservice.service.PipelineMetrics;
+import com.example.pdfprocessorservice.service.StatementTemplateRegistry;
+import com.example.pdfprocessorservice.service.StripPageOcr;
+import com.example.pdfprocessorservice.service.TableRegionDetector;
+import com.example.pdfprocessorservice.service.UploadSpooler;
+import com.example.pdfprocessorservice.util.ImageProcessor;
+import com.example.pdfprocessorservice.util.SpooledUpload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// PdfProcessorService-i real bean-larla, lakin MinIO və Postgres olmadan qurur:
+// MinIO yükləməsi və repository yaddaşdakı əvəzedicilərlə əvəz olunur, @Value default-ları olduğu kimi işləyir.
+// OCR keşi söndürülür ki, eyni səhifələrin təkrar emalı keşdən gəlməsin.
+// Tesseract tələb edən benchmark-lar üçün -Dtesseracts.data-path=<tessdata qovluğu> verilməlidir.
+public final class BenchmarkPipeline implements AutoCloseable {
+
+    private final AnnotationConfigApplicationContext context;
+
+    public BenchmarkPipeline() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "pdf.ocr.cache.enabled", "false",
+                "pdf.checkpoints.enabled", "false",
+                "minio.bucket-name", "benchmark")));
+        context.register(AsyncConfig.class, TesseractsConfig.class, ImageProcessor.class, UploadSpooler.class,
+                PageStrategySelector.class, TableRegionDetector.class, PageTriage.class,
+                StatementTemplateRegistry.class, OcrResultCache.class, PipelineMetrics.class,
+                OcrLanguageSelector.class, StripPageOcr.class, PageCheckpointStore.class,
+                PdfProcessorService.class);
+        context.registerBean(ObjectMapper.class, ObjectMapper::new);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(MinioService.class, InMemoryMinioService::new);
+        context.registerBean(PdfRepository.class, BenchmarkPipeline::inMemoryPdfRepository);
+        context.registerBean(TransactionRowRepository.class, () -> unsupported(TransactionRowRepository.class));
+        context.registerBean(PageCheckpointRepository.class, () -> unsupported(PageCheckpointRepository.class));
+        context.refresh();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    // processPdf MultipartFile qəbul edir; diskdəki faylı spring-test olmadan ona uyğunlaşdırır
+    public static MultipartFile multipartFile(Path path) {
+        return new MultipartFile() {
+            @Override
+            public String getName() {
+                return "file";
+            }
+
+            @Override
+            public String getOriginalFilename() {
+                return path.getFileName().toString();
+            }
+
+            @Override
+            public String getContentType() {
+                return "application/pdf";
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return getSize() == 0;
+            }
+
+            @Override
+            public long getSize() {
+                return path.toFile().length();
+            }
+
+            @Override
+            public byte[] getBytes() throws IOException {
+                return Files.readAllBytes(path);
+            }
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return Files.newInputStream(path);
+            }
+
+            @Override
+            public void transferTo(File dest) throws IOException {
+                Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        };
+    }
+
+    // Obyekti yükləmir, yalnız ad qaytarır; bucket yoxlaması da edilmir
+    private static final class InMemoryMinioService extends MinioService {
+
+        InMemoryMinioService() {
+            super(null);
+        }
+
+        @Override
+        public void provisionBucket() {
+        }
+
+        @Override
+        public String uploadFile(SpooledUpload upload) {
+            return UUID.randomUUID() + "_" + upload.getOriginalFilename();
+        }
+
+        @Override
+        public void removeFile(String objectName) {
+        }
+    }
+
+    // Hər benchmark çağırışı yeni sənəd kimi emal olunsun deyə dublikat axtarışları heç nə tapmır,
+    // save isə yalnız id verir
+    private static PdfRepository inMemoryPdfRepository() {
+        AtomicLong ids = new AtomicLong();
+        return (PdfRepository) Proxy.newProxyInstance(PdfRepository.class.getClassLoader(),
+                new Class<?>[]{PdfRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByHash", "findByFileHash", "findById" -> Optional.empty();
+                    case "findByFileName" -> List.of();
+                    case "save" -> {
+                        PdfEntity entity = (PdfEntity) args[0];
+                        entity.setId(ids.incrementAndGet());
+                        yield entity;
+                    }
+                    case "toString" -> "InMemoryPdfRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static <T> T unsupported(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> type.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.pdfprocessorservice.bench;
+
+import com.example.pdfprocessorservice.entity.AiOutboxEntry;
+import com.example.pdfprocessorservice.entity.PdfEntity;
+import com.example.pdfprocessorservice.entity.TransactionRow;
+import com.example.pdfprocessorservice.repository.PdfRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Toplu idxalın yazma yolu (PdfBatchService.storeChunk): bir saveAll ilə documents sənəd, hər birində
+// rowsPerDocument əməliyyat sətri və bir AI outbox qeydi. Real PostgreSQL tələb edir, sxemi Flyway qurur:
+//   ./gradlew jmh -PjmhIncludes=BulkInsertBenchmark -PjdbcUrl=jdbc:postgresql://localhost:5438/pdf_processor -PjdbcPassword=232323
+// "rows" ikinci metrikası bazaya yazılan sətir/s-dir. ids=IDENTITY əvvəlki id yaradılmasını (identity-ids.xml),
+// batchSize=1 isə JDBC batch-siz yazmanı göstərir. Benchmark sənədləri sonda silinir.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkInsertBenchmark {
+
+    private static final String MINIO_PREFIX = "bench-bulk/";
+
+    @Param({"SEQUENCE", "IDENTITY"})
+    private String ids;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"50"})
+    private int documents;
+
+    @Param({"40"})
+    private int rowsPerDocument;
+
+    private ConfigurableApplicationContext context;
+    private PdfRepository pdfRepository;
+    private String runId;
+    private long sequence;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, FlywayAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class, JdbcTemplateAutoConfiguration.class})
+    @EntityScan(basePackageClasses = PdfEntity.class)
+    @EnableJpaRepositories(basePackageClasses = PdfRepository.class)
+    static class PersistenceOnly {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=" + (batchSize > 1)));
+        if ("IDENTITY".equals(ids)) {
+            args.add("--spring.jpa.mapping-resources=identity-ids.xml");
+        }
+        for (String property : List.of("spring.datasource.url", "spring.datasource.username", "spring.datasource.password")) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                args.add("--" + property + "=" + value);
+            }
+        }
+        context = new SpringApplicationBuilder(PersistenceOnly.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        pdfRepository = context.getBean(PdfRepository.class);
+        runId = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // Sətirlər və outbox qeydləri ON DELETE CASCADE ilə silinir
+        context.getBean(JdbcTemplate.class).update("DELETE FROM pdf_files WHERE minio_path LIKE ?", MINIO_PREFIX + "%");
+        context.close();
+    }
+
+    @Benchmark
+    public List<PdfEntity> saveAll(Rows counter) {
+        List<PdfEntity> chunk = new ArrayList<>(documents);
+        for (int d = 0; d < documents; d++) {
+            chunk.add(document(runId + "-" + sequence++));
+        }
+        List<PdfEntity> saved = pdfRepository.saveAll(chunk);
+        counter.rows += (long) documents * (rowsPerDocument + 2);
+        return saved;
+    }
+
+    private PdfEntity document(String key) {
+        PdfEntity entity = PdfEntity.builder()
+                .fileName("statement-" + key + ".pdf")
+                .uploadDate(LocalDateTime.now())
+                .extractedText("bench " + key)
+                .minioPath(MINIO_PREFIX + key + ".pdf")
+                .hash("text-" + key)
+                .fileHash("file-" + key)
+                .pageStrategies("TEXT_LAYER")
+                .build();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int r = 0; r < rowsPerDocument; r++) {
+            entity.getTransactionRows().add(TransactionRow.builder()
+                    .pdf(entity)
+                    .rowIndex(r)
+                    .page(r / 40)
+                    .occurredAt(start.plusMinutes(r))
+                    .description("Kartdan karta köçürmə " + r)
+                    .amount(BigDecimal.valueOf(-1250 - r, 2))
+                    .fee(BigDecimal.ZERO)
+                    .vat(BigDecimal.ZERO)
+                    .balance(BigDecimal.valueOf(100_000 - r, 2))
+                    .confidence(1.0)
+                    .build());
+        }
+        entity.getAiOutboxEntries().add(AiOutboxEntry.pending(entity));
+        return entity;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.pdfprocessorservice.bench;
+
+import com.example.pdfprocessorservice.bench.SyntheticStatementPdf.Layout;
+import com.example.pdfprocessorservice.util.BinarizationEngine;
+import com.example.pdfprocessorservice.util.ImageProcessor;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// ImageProcessor.enhanceImage: skan edilmiş çıxarış səhifəsinin 300 DPI boz render-i üzərində.
+// Binarlaşdırma şəkli yerində dəyişdiyi üçün hər çağırışdan əvvəl təmiz nüsxə götürülür (ölçüyə daxil deyil).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImageProcessorBenchmark {
+
+    @Param({"SAUVOLA", "OTSU"})
+    private BinarizationEngine.Method method;
+
+    @Param({"false", "true"})
+    private boolean deskew;
+
+    private ImageProcessor imageProcessor;
+    private BufferedImage renderedPage;
+    private BufferedImage workingCopy;
+
+    @Setup
+    public void renderPage() throws IOException {
+        imageProcessor = new ImageProcessor(method, 20, 0.34, deskew, 5);
+        try (PDDocument document = Loader.loadPDF(SyntheticStatementPdf.write(Layout.IMAGE_ONLY, 1, 40, 42).toFile())) {
+            renderedPage = new PDFRenderer(document).renderImageWithDPI(0, 300, ImageType.GRAY);
+        }
+        workingCopy = new BufferedImage(renderedPage.getWidth(), renderedPage.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetImage() {
+        renderedPage.copyData(workingCopy.getRaster());
+    }
+
+    @Benchmark
+    public BufferedImage enhanceImage() {
+        return imageProcessor.enhanceImage(workingCopy);
+    }
+}
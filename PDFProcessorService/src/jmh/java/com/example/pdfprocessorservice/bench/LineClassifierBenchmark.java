@@ -0,0 +1,102 @@
+package com.example.pdfprocessorservice.bench;
+
+import com.example.pdfprocessorservice.util.LineClassifier;
+import com.example.pdfprocessorservice.util.LineFeatures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// LineClassifier-i köhnə String.matches əsaslı təsnifatla müqayisə edir.
+// Giriş bir neçə min sətirlik real çıxarışa bənzər mətndir: başlıqlar, əməliyyat sətirləri,
+// təyinatın davam sətirləri, IBAN/VÖEN/link sətirləri və boş sətirlər.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LineClassifierBenchmark {
+
+    @Param({"2000", "10000"})
+    private int lineCount;
+
+    private List<String> lines;
+
+    @Setup
+    public void generateStatement() {
+        Random random = new Random(42);
+        String[] descriptions = {"POS alış BRAVO SUPERMARKET BAKU", "Kartdan karta köçürmə",
+                "Kommunal ödəniş Azəriqaz", "Maaş köçürməsi", "ATM nağdlaşdırma Nizami küç."};
+        lines = new ArrayList<>(lineCount);
+        lines.add("Hesab çıxarışı 01.01.2024 - 31.12.2024");
+        lines.add("IBAN: AZ21NABZ00000000137010001944   VÖEN: 1234567891");
+        lines.add("Tarix Təyinat Məbləğ Komissiya ƏDV Balans");
+        double balance = 5000;
+        while (lines.size() < lineCount) {
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                double amount = Math.round((random.nextDouble() * 400 - 200) * 100) / 100.0;
+                balance += amount;
+                lines.add(String.format("%02d-%02d-2024 %s %.2f 0.00 0.00 %.2f", 1 + random.nextInt(28),
+                        1 + random.nextInt(12), descriptions[random.nextInt(descriptions.length)], amount, balance));
+            } else if (kind < 8) {
+                lines.add(descriptions[random.nextInt(descriptions.length)] + " terminal " + random.nextInt(99999));
+            } else if (kind == 8) {
+                lines.add(random.nextBoolean() ? "Page " + lines.size() / 50 : "www.bank.az tel: 196");
+            } else {
+                lines.add("");
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacyStringMatches(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(isPotentialTableHeader(line));
+            blackhole.consume(line.matches("\\d{2}[.-]\\d{2}[.-]\\d{4}.*")
+                    || line.matches(".*(www\\.|http).*")
+                    || line.matches(".*[-+]?\\d+\\.\\d{2}.*"));
+            blackhole.consume(line.matches(".*[A-Z]{2}\\d{2}[A-Z]{4}\\d+.*"));
+            blackhole.consume(line.matches(".*\\d{2}[.-]\\d{2}[.-]\\d{4}.*")
+                    && line.matches(".*[-+]?\\d+\\.\\d{2}.*"));
+        }
+    }
+
+    @Benchmark
+    public void singlePassClassifier(Blackhole blackhole) {
+        for (String line : lines) {
+            LineFeatures features = LineClassifier.classify(line);
+            blackhole.consume(features.isHeader());
+            blackhole.consume(features.startsRow());
+            blackhole.consume(features.isIban());
+            blackhole.consume(features.isTransactionLike());
+        }
+    }
+
+    // PdfProcessorService-dən köhnə başlıq yoxlaması, müqayisə üçün olduğu kimi saxlanılıb
+    private static boolean isPotentialTableHeader(String line) {
+        String[] words = line.split("\\s+");
+        int tableKeywordsCount = 0;
+        String[] tableKeywords = {"Tarix", "Əməliyyat", "Məbləğ", "Mədaxil", "Məxaric",
+                "Balans", "Təyinat", "Kart", "Komissiya", "ƏDV"};
+
+        for (String word : words) {
+            for (String keyword : tableKeywords) {
+                if (word.equalsIgnoreCase(keyword) || word.contains(keyword)) {
+                    tableKeywordsCount++;
+                    break;
+                }
+            }
+        }
+
+        return tableKeywordsCount >= 2;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.pdfprocessorservice.bench;
+
+import com.example.pdfprocessorservice.bench.SyntheticStatementPdf.Layout;
+import com.example.pdfprocessorservice.util.BinarizationEngine;
+import com.example.pdfprocessorservice.util.ImageProcessor;
+import com.example.pdfprocessorservice.util.TesseractEngine;
+import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Hər OCR dil dəsti üçün sürət və simvol dəqiqliyi hesabatı:
+//   ./gradlew ocrLanguageReport -Ptessdata=<tessdata> [-Pcorpus=<qovluq>] [-Planguages=eng+aze,eng+aze+aze_cyrl]
+// Korpus qovluğunda hər "ad.pdf" üçün "ad.txt" (düzgün mətn) olmalıdır; korpus verilmədikdə süni skan çıxarışlar
+// istifadə olunur və düzgün mətn onların mətn qatı variantından götürülür.
+// Dəqiqlik = 1 - Levenshtein(OCR, düzgün mətn) / len(düzgün mətn), boşluqlar normallaşdırılaraq.
+public final class OcrLanguageReport {
+
+    // Bir sənəd: səhifə şəkilləri və bütün sənədin düzgün mətni
+    private record Sample(String name, List<BufferedImage> pages, String groundTruth) {
+    }
+
+    private OcrLanguageReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String tessdata = System.getProperty("tesseracts.data-path", "src/main/resources/tessdata");
+        String[] languageSets = System.getProperty("ocr.languages", "eng+aze,aze_cyrl+eng,eng+aze+aze_cyrl").split(",");
+        String corpus = System.getProperty("ocr.corpus", "");
+
+        List<Sample> samples = corpus.isBlank() ? syntheticSamples() : corpusSamples(Path.of(corpus));
+        int pageCount = samples.stream().mapToInt(sample -> sample.pages().size()).sum();
+        System.out.printf("%d sənəd, %d səhifə, tessdata: %s%n%n", samples.size(), pageCount, tessdata);
+        System.out.printf("%-22s %10s %10s %10s%n", "dil dəsti", "ms/səhifə", "səhifə/s", "dəqiqlik");
+
+        for (String languages : languageSets) {
+            try (TesseractEngine engine = new TesseractEngine(tessdata, languages.trim(), 6, 300)) {
+                engine.doOCR(samples.get(0).pages().get(0), null); // İlk çağırış (model yüklənməsi) ölçülmür
+                long totalNanos = 0;
+                double accuracySum = 0;
+                for (Sample sample : samples) {
+                    StringBuilder text = new StringBuilder();
+                    for (BufferedImage page : sample.pages()) {
+                        long start = System.nanoTime();
+                        text.append(engine.doOCR(page, null)).append('\n');
+                        totalNanos += System.nanoTime() - start;
+                    }
+                    accuracySum += accuracy(text.toString(), sample.groundTruth());
+                }
+                double msPerPage = totalNanos / 1e6 / pageCount;
+                System.out.printf("%-22s %10.1f %10.2f %9.2f%%%n", languages.trim(), msPerPage,
+                        1000 / msPerPage, 100 * accuracySum / samples.size());
+            } catch (TesseractException e) {
+                System.out.printf("%-22s başladıla bilmədi: %s%n", languages.trim(), e.getMessage());
+            }
+        }
+    }
+
+    private static List<Sample> syntheticSamples() throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        for (long seed = 1; seed <= 3; seed++) {
+            try (PDDocument text = Loader.loadPDF(SyntheticStatementPdf.write(Layout.TEXT_LAYER, 3, 40, seed).toFile());
+                 PDDocument scanned = Loader.loadPDF(SyntheticStatementPdf.write(Layout.IMAGE_ONLY, 3, 40, seed).toFile())) {
+                samples.add(new Sample("synthetic-" + seed, renderAll(scanned), new PDFTextStripper().getText(text)));
+            }
+        }
+        return samples;
+    }
+
+    private static List<Sample> corpusSamples(Path directory) throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path pdf : files.filter(path -> path.toString().endsWith(".pdf")).sorted().toList()) {
+                Path truth = Path.of(pdf.toString().replaceFirst("\\.pdf$", ".txt"));
+                if (!Files.exists(truth)) {
+                    System.out.println("Düzgün mətn yoxdur, buraxılır: " + pdf.getFileName());
+                    continue;
+                }
+                try (PDDocument document = Loader.loadPDF(pdf.toFile())) {
+                    samples.add(new Sample(pdf.getFileName().toString(), renderAll(document), Files.readString(truth)));
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static List<BufferedImage> renderAll(PDDocument document) throws IOException {
+        PDFRenderer renderer = new PDFRenderer(document);
+        ImageProcessor imageProcessor = new ImageProcessor(BinarizationEngine.Method.SAUVOLA, 20, 0.34, false, 5);
+        List<BufferedImage> pages = new ArrayList<>();
+        for (int page = 0; page < document.getNumberOfPages(); page++) {
+            pages.add(imageProcessor.enhanceImage(renderer.renderImageWithDPI(page, 300, ImageType.GRAY)));
+        }
+        return pages;
+    }
+
+    private static double accuracy(String ocr, String groundTruth) {
+        String expected = normalize(groundTruth);
+        if (expected.isEmpty()) {
+            return 0.0;
+        }
+        return Math.max(0, 1 - (double) levenshtein(normalize(ocr), expected) / expected.length());
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.replaceAll("\\s+", " ").trim();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
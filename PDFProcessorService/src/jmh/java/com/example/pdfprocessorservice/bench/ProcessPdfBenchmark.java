@@ -0,0 +1,53 @@
+package com.example.pdfprocessorservice.bench;
+
+import com.example.pdfprocessorservice.bench.SyntheticStatementPdf.Layout;
+import com.example.pdfprocessorservice.entity.PdfEntity;
+import com.example.pdfprocessorservice.service.PdfProcessorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// processPdf-in tam yolu: spool, SHA-256, mətn qatı yoxlaması, triage, render/OCR, sətir təhlili və yazma.
+// MinIO və baza yaddaşdakı əvəzedicilərdir, yəni nəticə yalnız tətbiqin öz CPU/yaddaş xərcini göstərir.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProcessPdfBenchmark {
+
+    @Param({"TEXT_LAYER", "IMAGE_ONLY"})
+    private Layout layout;
+
+    @Param({"1", "10"})
+    private int pages;
+
+    private BenchmarkPipeline pipeline;
+    private PdfProcessorService service;
+    private MultipartFile file;
+
+    @Setup
+    public void setUp() throws IOException {
+        pipeline = new BenchmarkPipeline();
+        service = pipeline.getBean(PdfProcessorService.class);
+        file = BenchmarkPipeline.multipartFile(SyntheticStatementPdf.write(layout, pages, 40, 42));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public PdfEntity processPdf() throws IOException {
+        return service.processPdf(file);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.pdfprocessorservice.bench;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Benchmark-lar üçün süni bank çıxarışı PDF-ləri yaradır.
+// TEXT_LAYER: rəqəmsal çıxarış (PDFBox mətn qatı kifayətdir);
+// IMAGE_ONLY: eyni səhifələr şəkil kimi (skan), mətn qatı yoxdur və OCR tələb olunur.
+// Standard 14 şriftləri Ə/ğ kimi hərfləri kodlaya bilmədiyi üçün mətn ASCII-dir və "generic" şablonuna uyğun gəlir.
+public final class SyntheticStatementPdf {
+
+    public enum Layout {
+        TEXT_LAYER, IMAGE_ONLY
+    }
+
+    private static final String[] DESCRIPTIONS = {"POS alis BRAVO SUPERMARKET BAKU", "Kartdan karta kocurme",
+            "Kommunal odenis Azeriqaz", "Maas kocurmesi", "ATM nagdlasdirma Nizami kuc."};
+    private static final float FONT_SIZE = 9f;
+    private static final float LEADING = 12f;
+    private static final float MARGIN = 40f;
+    private static final int SCAN_DPI = 200;
+
+    private SyntheticStatementPdf() {
+    }
+
+    // Faylı müvəqqəti qovluğa yazır; seed eyni olduqda məzmun da eynidir
+    public static Path write(Layout layout, int pages, int rowsPerPage, long seed) throws IOException {
+        Path target = Files.createTempFile("synthetic-statement-", ".pdf");
+        try (PDDocument textDocument = createTextDocument(pages, rowsPerPage, seed)) {
+            if (layout == Layout.TEXT_LAYER) {
+                textDocument.save(target.toFile());
+            } else {
+                try (PDDocument scanned = toImageOnly(textDocument)) {
+                    scanned.save(target.toFile());
+                }
+            }
+        }
+        target.toFile().deleteOnExit();
+        return target;
+    }
+
+    private static PDDocument createTextDocument(int pages, int rowsPerPage, long seed) throws IOException {
+        Random random = new Random(seed);
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        PDDocument document = new PDDocument();
+        double balance = 5000;
+
+        for (int p = 0; p < pages; p++) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(font, FONT_SIZE);
+                content.setLeading(LEADING);
+                content.newLineAtOffset(MARGIN, PDRectangle.A4.getHeight() - MARGIN);
+                if (p == 0) {
+                    content.showText("Hesab cixarisi 01-01-2024 - 31-12-2024");
+                    content.newLine();
+                    content.showText("IBAN: AZ21NABZ00000000137010001944   VOEN: 1234567891");
+                    content.newLine();
+                    content.newLine();
+                }
+                content.showText("Tarix Teyinat Mebleg Komissiya EDV Balans");
+                content.newLine();
+                for (int r = 0; r < rowsPerPage; r++) {
+                    double amount = Math.round((random.nextDouble() * 400 - 200) * 100) / 100.0;
+                    balance += amount;
+                    content.showText(String.format("%02d-%02d-2024 %s %.2f 0.00 0.00 %.2f",
+                            1 + random.nextInt(28), 1 + random.nextInt(12),
+                            DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)], amount, balance));
+                    content.newLine();
+                    if (random.nextInt(4) == 0) {
+                        // Təyinatın davam sətri (stitching yolunu da işlədir)
+                        content.showText("terminal " + random.nextInt(99999) + " Baki seheri");
+                        content.newLine();
+                    }
+                }
+                if (p == pages - 1) {
+                    content.newLine();
+                    content.showText(String.format("Son qaliq: %.2f", balance));
+                }
+                content.endText();
+            }
+        }
+        return document;
+    }
+
+    private static PDDocument toImageOnly(PDDocument textDocument) throws IOException {
+        PDFRenderer renderer = new PDFRenderer(textDocument);
+        PDDocument scanned = new PDDocument();
+        for (int p = 0; p < textDocument.getNumberOfPages(); p++) {
+            BufferedImage image = renderer.renderImageWithDPI(p, SCAN_DPI, ImageType.GRAY);
+            PDPage page = new PDPage(PDRectangle.A4);
+            scanned.addPage(page);
+            PDImageXObject xObject = LosslessFactory.createFromImage(scanned, image);
+            try (PDPageContentStream content = new PDPageContentStream(scanned, page)) {
+                content.drawImage(xObject, 0, 0, PDRectangle.A4.getWidth(), PDRectangle.A4.getHeight());
+            }
+        }
+        return scanned;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.bench.BenchmarkPipeline;
+import com.example.pdfprocessorservice.bench.SyntheticStatementPdf;
+import com.example.pdfprocessorservice.bench.SyntheticStatementPdf.Layout;
+import com.example.pdfprocessorservice.entity.ExtractionStrategy;
+import com.example.pdfprocessorservice.util.ExtractedTable;
+import com.example.pdfprocessorservice.util.PageProbe;
+import com.example.pdfprocessorservice.util.ProgressListener;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PdfProcessorService-in cədvəl çıxarma yollarını süni çıxarışlar üzərində ölçür.
+// Paket service-dir, çünki ölçülən metodlar paket daxilidir.
+// extractTablesWithTesseract Tesseract kitabxanası və tessdata tələb edir (bax BenchmarkPipeline).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfExtractionBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int pages;
+
+    @Param({"40"})
+    private int rowsPerPage;
+
+    private BenchmarkPipeline pipeline;
+    private PdfProcessorService service;
+    private PDDocument scannedDocument;
+    private List<String> textLayerPages;
+    private List<String> emptyPages;
+    private String tableText;
+
+    @Setup
+    public void setUp() throws IOException {
+        pipeline = new BenchmarkPipeline();
+        service = pipeline.getBean(PdfProcessorService.class);
+
+        Path textPdf = SyntheticStatementPdf.write(Layout.TEXT_LAYER, pages, rowsPerPage, 42);
+        try (PDDocument document = Loader.loadPDF(textPdf.toFile())) {
+            textLayerPages = pipeline.getBean(PageStrategySelector.class).probe(document).stream()
+                    .map(PageProbe::getText)
+                    .toList();
+        }
+        tableText = service.extractTablesWithPDFBox(textLayerPages).getText();
+
+        scannedDocument = Loader.loadPDF(SyntheticStatementPdf.write(Layout.IMAGE_ONLY, pages, rowsPerPage, 42).toFile());
+        emptyPages = Collections.nCopies(pages, "");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        scannedDocument.close();
+        pipeline.close();
+    }
+
+    @Benchmark
+    public ExtractedTable extractTablesWithPDFBox() throws IOException {
+        return service.extractTablesWithPDFBox(textLayerPages);
+    }
+
+    @Benchmark
+    public ExtractedTable extractTablesWithTesseract() throws IOException {
+        List<ExtractionStrategy> strategies = new ArrayList<>(Collections.nCopies(pages, ExtractionStrategy.OCR));
+        return service.extractTablesWithTesseract(scannedDocument, null, emptyPages, strategies, ProgressListener.NONE);
+    }
+
+    @Benchmark
+    public boolean isTableContent() {
+        return service.isTableContent(tableText);
+    }
+}
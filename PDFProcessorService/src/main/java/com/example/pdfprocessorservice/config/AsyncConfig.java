@@ -0,0 +1,153 @@
+package com.example.pdfprocessorservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// spring.threads.virtual.enabled=true (Java 21) olduqda Tomcat sorğuları, @Scheduled və yalnız I/O gözləyən
+// executor-lar (MinIO yükləməsi, AI outbox göndərişi) virtual thread-lərdə işləyir.
+// OCR, PDF işləri və toplu idxal CPU ağırlıqlıdır və Tesseract JNA çağırışı virtual thread-i daşıyıcıya bağlayır:
+// onlar həmişə məhdud platform hovuzlarında qalır.
+@Configuration
+public class AsyncConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${tesseracts.pool-size:4}")
+    private int poolSize;
+
+    @Value("${tesseracts.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${minio.upload.pool-size:4}")
+    private int minioUploadPoolSize;
+
+    @Value("${pdf.batch.parallelism:4}")
+    private int batchParallelism;
+
+    @Value("${pdf.batch.max-files:500}")
+    private int batchMaxFiles;
+
+    @Value("${pdf.ai.outbox.concurrency:4}")
+    private int aiDispatchConcurrency;
+
+    @Value("${pdf.jobs.pool-size:2}")
+    private int jobPoolSize;
+
+    @Value("${pdf.jobs.queue-capacity:50}")
+    private int jobQueueCapacity;
+
+    // Səhifə OCR işləri üçün executor; thread sayı Tesseract hovuzunun ölçüsü ilə eynidir
+    @Bean(name = "ocrTaskExecutor")
+    public ThreadPoolTaskExecutor ocrTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(ocrRejectionPolicy());
+        executor.setThreadNamePrefix("OcrTask-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    // Növbə dolduqda platform rejimində OCR iş çağıran thread-də icra olunur. Virtual rejimdə çağıran
+    // sorğu thread-i virtual ola bilər: OCR orada işləsə hovuz limiti keçilər, ona görə növbədə yer gözlənilir.
+    private RejectedExecutionHandler ocrRejectionPolicy() {
+        if (!virtualThreads) {
+            return new ThreadPoolExecutor.CallerRunsPolicy();
+        }
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new TaskRejectedException("OCR executor dayandırılıb");
+            }
+            try {
+                pool.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TaskRejectedException("OCR növbəsində yer gözlənilərkən kəsildi", e);
+            }
+        };
+    }
+
+    // MinIO yükləmələri OCR ilə paralel getsin deyə ayrıca I/O executor
+    @Bean(name = "minioUploadExecutor")
+    public AsyncTaskExecutor minioUploadExecutor() {
+        if (virtualThreads) {
+            return virtualExecutor("MinioUpload-", minioUploadPoolSize, 60);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(minioUploadPoolSize);
+        executor.setMaxPoolSize(minioUploadPoolSize);
+        executor.setQueueCapacity(100);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("MinioUpload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    // Asinxron PDF işləri (/api/pdf/jobs); növbə dolduqda yeni işlər rədd edilir (503)
+    @Bean(name = "pdfJobExecutor")
+    public ThreadPoolTaskExecutor pdfJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobPoolSize);
+        executor.setMaxPoolSize(jobPoolSize);
+        executor.setQueueCapacity(jobQueueCapacity);
+        executor.setThreadNamePrefix("PdfJob-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    // Toplu idxal (/api/pdf/batch): eyni anda hazırlanan sənəd sayı; səhifələr ümumi ocrTaskExecutor-da OCR olunur
+    @Bean(name = "pdfBatchExecutor")
+    public ThreadPoolTaskExecutor pdfBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchParallelism);
+        executor.setMaxPoolSize(batchParallelism);
+        executor.setQueueCapacity(batchMaxFiles);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("PdfBatch-");
+        executor.initialize();
+        return executor;
+    }
+
+    // AI outbox göndərişləri; dispatcher yalnız boş thread qədər qeyd götürür, ona görə növbə kiçikdir
+    @Bean(name = "aiDispatchExecutor")
+    public AsyncTaskExecutor aiDispatchExecutor() {
+        if (virtualThreads) {
+            return virtualExecutor("AiDispatch-", aiDispatchConcurrency, 30);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(aiDispatchConcurrency);
+        executor.setMaxPoolSize(aiDispatchConcurrency);
+        executor.setQueueCapacity(aiDispatchConcurrency);
+        executor.setThreadNamePrefix("AiDispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Hər tapşırıq üçün yeni virtual thread; concurrencyLimit aşıldıqda çağıran gözləyir (növbə yoxdur)
+    private static SimpleAsyncTaskExecutor virtualExecutor(String threadNamePrefix, int concurrencyLimit,
+                                                           int awaitTerminationSeconds) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(awaitTerminationSeconds * 1000L);
+        return executor;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.pdfprocessorservice.config;
 
-import net.sourceforge.tess4j.Tesseract;
+import com.example.pdfprocessorservice.util.TesseractPool;
+import com.example.pdfprocessorservice.util.TesseractPools;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,13 +12,47 @@ public class TesseractsConfig {
     @Value("${tesseracts.data-path:src/main/resources/tessdata}")
     private String tessdataPath;
 
+    @Value("${tesseracts.pool-size:4}")
+    private int poolSize;
+
+    @Value("${tesseracts.borrow-timeout-ms:60000}")
+    private long borrowTimeoutMillis;
+
+    @Value("${pdf.ocr.languages.auto-detect:true}")
+    private boolean autoDetect;
+
+    @Value("${pdf.ocr.languages.latin:eng+aze}")
+    private String latinLanguages;
+
+    @Value("${pdf.ocr.languages.cyrillic:aze_cyrl+eng}")
+    private String cyrillicLanguages;
+
+    @Value("${pdf.ocr.languages.full:eng+aze+aze_cyrl}")
+    private String fullLanguages;
+
+    @Value("${pdf.ocr.languages.secondary-pool-size:2}")
+    private int secondaryPoolSize;
+
+    // Avtomatik seçimdə çıxarışların əksəriyyəti latın dəsti ilə OCR olunur: yalnız o hovuz tam ölçüdə
+    // əvvəlcədən yüklənir. Tam dəst (dil bilinməyəndə, ilk səhifə nümunəsi) və kiril dəsti üçün
+    // mühərriklər lazım olduqda, ən çox secondaryPoolSize qədər yaradılır.
     @Bean
-    public Tesseract tesseract() {
-        Tesseract tesseract = new Tesseract();
-        tesseract.setDatapath(tessdataPath);
-        tesseract.setLanguage("eng+aze+aze_cyrl");
-        tesseract.setPageSegMode(6);
-        return tesseract;
+    public TesseractPools tesseractPools() {
+        TesseractPools pools = new TesseractPools(fullLanguages);
+        if (!autoDetect) {
+            pools.add(prewarmed(new TesseractPool(tessdataPath, fullLanguages, 6, 300, poolSize, borrowTimeoutMillis)));
+            return pools;
+        }
+        pools.add(prewarmed(new TesseractPool(tessdataPath, latinLanguages, 6, 300, poolSize, borrowTimeoutMillis)));
+        pools.add(new TesseractPool(tessdataPath, fullLanguages, 6, 300,
+                Math.min(secondaryPoolSize, poolSize), borrowTimeoutMillis));
+        pools.add(new TesseractPool(tessdataPath, cyrillicLanguages, 6, 300,
+                Math.min(secondaryPoolSize, poolSize), borrowTimeoutMillis));
+        return pools;
     }
-}
 
+    private static TesseractPool prewarmed(TesseractPool pool) {
+        pool.prewarm();
+        return pool;
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.pdfprocessorservice.controller;
 
+import com.example.pdfprocessorservice.dto.BatchManifest;
+import com.example.pdfprocessorservice.dto.OcrCacheStats;
+import com.example.pdfprocessorservice.dto.PdfPageResponse;
+import com.example.pdfprocessorservice.dto.TransactionRowDto;
 import com.example.pdfprocessorservice.entity.PdfEntity;
+import com.example.pdfprocessorservice.service.OcrResultCache;
+import com.example.pdfprocessorservice.service.PdfBatchService;
 import com.example.pdfprocessorservice.service.PdfProcessorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/pdf")
@@ -22,6 +34,8 @@ import java.util.List;
 public class PdfController {
 
     private final PdfProcessorService pdfProcessorService;
+    private final OcrResultCache ocrResultCache;
+    private final PdfBatchService pdfBatchService;
 
 
     @PostMapping(value = "/process", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -36,46 +50,157 @@ public class PdfController {
         }
     }
 
-    // PDF yükləmə endpoint'i (MinIO-dan faylı döndürür)
+    // Çoxlu PDF (files) və ya ZIP arxivi (archive) bir sorğu ilə; fayl-fayl nəticə manifesti qaytarılır
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchManifest> processBatch(@RequestParam(value = "files", required = false) List<MultipartFile> files,
+                                                      @RequestParam(value = "archive", required = false) MultipartFile archive) {
+        boolean hasFiles = files != null && !files.isEmpty();
+        if (hasFiles == (archive != null)) {
+            return ResponseEntity.badRequest().build(); // files və ya archive, yalnız biri
+        }
+        try {
+            BatchManifest manifest = hasFiles
+                    ? pdfBatchService.processFiles(files)
+                    : pdfBatchService.processArchive(archive);
+            return ResponseEntity.ok(manifest);
+        } catch (IllegalArgumentException e) {
+            log.warn("Toplu sorğu rədd edildi: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.error("Toplu emal zamanı xəta: {}", e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // PDF yükləmə endpoint'i: MinIO obyekti cavaba birbaşa axın kimi yazılır.
+    // Range (tək diapazon), If-None-Match və If-Range dəstəklənir; ETag faylın SHA-256 hash-idir.
     @GetMapping("/download/{id}")
-    public ResponseEntity<InputStreamResource> downloadPdf(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> downloadPdf(@PathVariable Long id,
+                                                             @RequestHeader HttpHeaders requestHeaders) {
         try {
             PdfEntity pdfEntity = pdfProcessorService.getPdfEntityById(id);
             if (pdfEntity == null || pdfEntity.getMinioPath() == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            byte[] fileContent = pdfProcessorService.downloadFromMinIO(pdfEntity.getMinioPath());
+            String eTag = pdfEntity.getFileHash() != null ? "\"" + pdfEntity.getFileHash() + "\"" : null;
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentDisposition(ContentDisposition.attachment()
+                    .filename(pdfEntity.getFileName(), StandardCharsets.UTF_8)
+                    .build());
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (eTag != null) {
+                // Məzmun dəyişməzdir (hash-ə bağlıdır), amma bank çıxarışıdır: yalnız brauzer keşi
+                headers.setETag(eTag);
+                headers.setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable());
+                if (matchesETag(requestHeaders.getIfNoneMatch(), eTag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+                }
+            } else {
+                headers.setCacheControl(CacheControl.noCache().cachePrivate());
+            }
 
-            InputStreamResource resource = new InputStreamResource(new ByteArrayInputStream(fileContent));
+            long fileSize = pdfProcessorService.getMinIOObjectSize(pdfEntity.getMinioPath());
+            HttpRange range = resolveRange(requestHeaders, eTag);
+            long start = 0;
+            long end = fileSize - 1;
+            HttpStatus status = HttpStatus.OK;
+            if (range != null) {
+                if (fileSize == 0 || range.getRangeStart(fileSize) >= fileSize) {
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize);
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+                }
+                start = range.getRangeStart(fileSize);
+                end = range.getRangeEnd(fileSize);
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileSize);
+            }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + pdfEntity.getFileName());
-            headers.add(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
-            headers.add(HttpHeaders.PRAGMA, "no-cache");
-            headers.add(HttpHeaders.EXPIRES, "0");
+            long length = end - start + 1;
+            InputStream objectStream = pdfProcessorService.openFromMinIO(pdfEntity.getMinioPath(), start, length);
+            StreamingResponseBody body = outputStream -> {
+                try (InputStream in = objectStream) {
+                    in.transferTo(outputStream);
+                }
+            };
 
-            return ResponseEntity.ok()
+            return ResponseEntity.status(status)
                     .headers(headers)
-                    .contentLength(fileContent.length)
+                    .contentLength(length)
                     .contentType(MediaType.APPLICATION_PDF)
-                    .body(resource);
+                    .body(body);
         } catch (IOException e) {
             log.error("PDF yüklənərkən səhv: {}", e.getMessage());
             return ResponseEntity.status(500).body(null);
         }
     }
 
-    // Fayl adına görə PDF-ləri siyahıya almaq
+    private boolean matchesETag(List<String> candidates, String eTag) {
+        for (String candidate : candidates) {
+            String normalized = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if ("*".equals(normalized) || eTag.equals(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Yalnız tək diapazon nəzərə alınır; çoxlu və ya yanlış diapazonda tam fayl qaytarılır
+    private HttpRange resolveRange(HttpHeaders requestHeaders, String eTag) {
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            log.debug("Yanlış Range başlığı nəzərə alınmadı: {}", e.getMessage());
+            return null;
+        }
+        if (ranges.size() != 1) {
+            return null;
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && (eTag == null || !eTag.equals(ifRange))) {
+            return null; // Fayl dəyişib (və ya yoxlamaq mümkün deyil), tam məzmun göndərilir
+        }
+        return ranges.get(0);
+    }
+
+    // Fayl adına görə PDF-ləri siyahıya almaq (keyset səhifələmə, yalnız xülasə sahələri)
     @GetMapping("/by-filename/{fileName}")
-    public ResponseEntity<List<PdfEntity>> getPdfsByFileName(@PathVariable String fileName) {
-        List<PdfEntity> pdfs = pdfProcessorService.getPdfsByFileName(fileName);
-        if (pdfs.isEmpty()) {
+    public ResponseEntity<PdfPageResponse> getPdfsByFileName(@PathVariable String fileName,
+                                                             @RequestParam(required = false) Long after,
+                                                             @RequestParam(defaultValue = "50") int size) {
+        PdfPageResponse page = pdfProcessorService.getPdfsByFileName(fileName, after, size);
+        if (page.getItems().isEmpty()) {
             log.info("Bu fayl adı ilə PDF tapılmadı: {}", fileName);
             return ResponseEntity.noContent().build();
         }
-        log.info("Bu fayl adı ilə {} PDF tapıldı: {}", pdfs.size(), fileName);
-        return ResponseEntity.ok(pdfs);
+        log.info("Bu fayl adı ilə {} PDF tapıldı: {}", page.getItems().size(), fileName);
+        return ResponseEntity.ok(page);
+    }
+
+    // Tam PdfEntity (extractedText və metadata daxil)
+    @GetMapping("/{id:\\d+}")
+    public ResponseEntity<PdfEntity> getPdf(@PathVariable Long id) {
+        PdfEntity pdfEntity = pdfProcessorService.getPdfEntityById(id);
+        if (pdfEntity == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(pdfEntity);
+    }
+
+    // OCR nəticə keşinin hit/miss sayğacları
+    @GetMapping("/ocr-cache/stats")
+    public ResponseEntity<OcrCacheStats> getOcrCacheStats() {
+        return ResponseEntity.ok(ocrResultCache.getStats());
+    }
+
+    // PDF-in tipli əməliyyat sətirləri, sənəddəki sıra ilə
+    @GetMapping("/{id:\\d+}/rows")
+    public ResponseEntity<List<TransactionRowDto>> getTransactionRows(@PathVariable Long id) {
+        if (!pdfProcessorService.pdfExists(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(pdfProcessorService.getTransactionRows(id));
     }
 
     /*
@@ -92,15 +217,25 @@ public class PdfController {
     }
     */
 
-    // Bütün PDF-ləri siyahıya almaq
+    // Bütün PDF-ləri siyahıya almaq (keyset səhifələmə, yalnız xülasə sahələri)
     @GetMapping("/all")
-    public ResponseEntity<List<PdfEntity>> getAllPdfs() {
-        List<PdfEntity> allPdfs = pdfProcessorService.getAllPdfs();
-        if (allPdfs.isEmpty()) {
+    public ResponseEntity<PdfPageResponse> getAllPdfs(@RequestParam(required = false) Long after,
+                                                      @RequestParam(defaultValue = "50") int size) {
+        PdfPageResponse page = pdfProcessorService.getAllPdfs(after, size);
+        if (page.getItems().isEmpty()) {
             log.info("Verilənlər bazasında PDF tapılmadı");
             return ResponseEntity.noContent().build();
         }
-        log.info("Ümumilikdə {} PDF tapıldı", allPdfs.size());
-        return ResponseEntity.ok(allPdfs);
+        log.info("{} PDF qaytarıldı, növbəti kursor: {}", page.getItems().size(), page.getNextCursor());
+        return ResponseEntity.ok(page);
+    }
+
+    // Bütün PDF xülasələrinin NDJSON axını (toplu ixrac üçün)
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPdfs() {
+        StreamingResponseBody body = pdfProcessorService::exportSummariesAsNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
-}
\ No newline at end of file
+}
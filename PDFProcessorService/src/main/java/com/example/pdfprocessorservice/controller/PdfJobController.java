@@ -0,0 +1,68 @@
+package com.example.pdfprocessorservice.controller;
+
+import com.example.pdfprocessorservice.dto.PdfJobStatus;
+import com.example.pdfprocessorservice.service.PdfJobService;
+import com.example.pdfprocessorservice.service.UploadSpooler;
+import com.example.pdfprocessorservice.util.SpooledUpload;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/pdf/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class PdfJobController {
+
+    private final PdfJobService pdfJobService;
+    private final UploadSpooler uploadSpooler;
+
+    // PDF-i fon işi kimi qəbul edir və dərhal 202 qaytarır
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<PdfJobStatus> submit(@RequestParam("file") MultipartFile file) {
+        SpooledUpload upload;
+        try {
+            upload = uploadSpooler.spool(file);
+        } catch (IOException e) {
+            log.error("Fayl qəbul edilərkən səhv: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+
+        try {
+            PdfJobStatus status = pdfJobService.submit(upload);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(status.getJobId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(status);
+        } catch (TaskRejectedException e) {
+            log.warn("PDF iş növbəsi doludur, sorğu rədd edildi: {}", file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PdfJobStatus> getStatus(@PathVariable String jobId) {
+        return pdfJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Səhifə-səhifə gedişat və son PdfEntity Server-Sent Events ilə
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String jobId) {
+        return pdfJobService.subscribe(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -2,6 +2,8 @@ package com.example.pdfprocessorservice.dto;
 
 import lombok.*;
 
+import java.util.List;
+
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,4 +15,5 @@ public class AIAnalysisRequest {
     private String extractedText;
     private String hash; // SHA-256 hash
     private String analysisType;
+    private List<TransactionRowDto> rows; // Təhlil olunmuş sətirlər; varsa extractedText göndərilmir
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.pdfprocessorservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// Toplu yükləmədə bir faylın nəticəsi
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    public enum Status {
+        CREATED,   // Yeni PdfEntity yazıldı
+        DUPLICATE, // Eyni fayl/mətn artıq bazada və ya eyni paketdə var
+        FAILED
+    }
+
+    private String fileName;
+    private Status status;
+    private Long pdfId;
+    private String fileHash;
+    private Integer rowCount;
+    private String error;
+}
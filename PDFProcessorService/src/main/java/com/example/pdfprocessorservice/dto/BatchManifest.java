@@ -0,0 +1,18 @@
+package com.example.pdfprocessorservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Toplu yükləmənin fayl-fayl nəticəsi (göndərilmə sırası ilə)
+@Getter
+@AllArgsConstructor
+public class BatchManifest {
+    private int totalFiles;
+    private int created;
+    private int duplicates;
+    private int failed;
+    private long durationMillis;
+    private List<BatchItemResult> items;
+}
@@ -0,0 +1,23 @@
+package com.example.pdfprocessorservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// OCR nəticə keşinin sayğacları
+@Getter
+@AllArgsConstructor
+public class OcrCacheStats {
+    private long hits;         // Yaddaşdakı keşdən
+    private long redisHits;    // Redis-dən (yaddaşda yox idi)
+    private long misses;       // Tesseract çağırıldı
+    private long evictions;
+    private int entries;
+    private long sizeBytes;
+    private long maxSizeBytes;
+    private boolean redisEnabled;
+
+    public double getHitRate() {
+        long lookups = hits + redisHits + misses;
+        return lookups == 0 ? 0.0 : (double) (hits + redisHits) / lookups;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.pdfprocessorservice.dto;
+
+import com.example.pdfprocessorservice.entity.PdfEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Asinxron PDF emalı işinin vəziyyəti
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdfJobStatus {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String jobId;
+    private String fileName;
+    private State state;
+    private int completedPages;
+    private int totalPages;
+    private PdfEntity result; // Yalnız COMPLETED vəziyyətində
+    private String error;     // Yalnız FAILED vəziyyətində
+    private LocalDateTime submittedAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.example.pdfprocessorservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Keyset səhifələmə cavabı; növbəti səhifə üçün nextCursor "after" parametri kimi göndərilir
+@Getter
+@AllArgsConstructor
+public class PdfPageResponse {
+    private List<PdfSummary> items;
+    private Long nextCursor; // Son səhifədə null
+}
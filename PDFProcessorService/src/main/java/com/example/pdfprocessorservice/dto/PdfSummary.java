@@ -0,0 +1,14 @@
+package com.example.pdfprocessorservice.dto;
+
+import com.example.pdfprocessorservice.entity.PdfStatus;
+
+import java.time.LocalDateTime;
+
+// Siyahı endpoint-ləri üçün yüngül proyeksiya: extractedText və metadata kimi böyük sütunlar seçilmir
+public interface PdfSummary {
+    Long getId();
+    String getFileName();
+    LocalDateTime getUploadDate();
+    String getHash();
+    PdfStatus getStatus();
+}
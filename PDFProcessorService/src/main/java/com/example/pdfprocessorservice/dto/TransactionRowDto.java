@@ -0,0 +1,38 @@
+package com.example.pdfprocessorservice.dto;
+
+import com.example.pdfprocessorservice.entity.TransactionRow;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class TransactionRowDto {
+    private int rowIndex;
+    private int page;
+    private LocalDateTime occurredAt;
+    private String description;
+    private BigDecimal amount;
+    private BigDecimal fee;
+    private BigDecimal vat;
+    private BigDecimal balance;
+    private double confidence;
+
+    public static TransactionRowDto from(TransactionRow row) {
+        return TransactionRowDto.builder()
+                .rowIndex(row.getRowIndex())
+                .page(row.getPage())
+                .occurredAt(row.getOccurredAt())
+                .description(row.getDescription())
+                .amount(row.getAmount())
+                .fee(row.getFee())
+                .vat(row.getVat())
+                .balance(row.getBalance())
+                .confidence(row.getConfidence())
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.pdfprocessorservice.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// AIService-ə göndəriləcək təhlil sorğusu (transactional outbox).
+// PdfEntity ilə birlikdə (cascade) yazılır ki, tətbiq dayansa belə sorğu itməsin.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "ai_outbox", indexes = {
+        @Index(name = "ix_ai_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "ix_ai_outbox_pdf_id", columnList = "pdf_id")
+})
+public class AiOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_outbox_seq")
+    @SequenceGenerator(name = "ai_outbox_seq", sequenceName = "ai_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "pdf_id", nullable = false)
+    private PdfEntity pdf;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AiOutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil; // IN_PROGRESS qeydinin icarə müddəti
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static AiOutboxEntry pending(PdfEntity pdf) {
+        LocalDateTime now = LocalDateTime.now();
+        return AiOutboxEntry.builder()
+                .pdf(pdf)
+                .status(AiOutboxStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
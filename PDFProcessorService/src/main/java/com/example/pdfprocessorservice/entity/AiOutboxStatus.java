@@ -0,0 +1,8 @@
+package com.example.pdfprocessorservice.entity;
+
+public enum AiOutboxStatus {
+    PENDING,     // Göndərilməyi gözləyir (next_attempt_at-dan sonra)
+    IN_PROGRESS, // Dispatcher tərəfindən götürülüb; locked_until keçibsə yenidən götürülə bilər
+    DONE,        // AIService cavabı yazılıb
+    FAILED       // Bütün cəhdlər bitib
+}
@@ -0,0 +1,8 @@
+package com.example.pdfprocessorservice.entity;
+
+// Səhifənin mətninin necə çıxarıldığı
+public enum ExtractionStrategy {
+    TEXT_LAYER, // PDF-in öz mətn qatından (PDFBox)
+    OCR,        // 300 DPI render + Tesseract
+    SKIPPED     // Triage: əməliyyat ola bilməyən səhifə, render və OCR edilmir
+}
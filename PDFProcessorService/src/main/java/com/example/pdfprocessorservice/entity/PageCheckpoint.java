@@ -0,0 +1,49 @@
+package com.example.pdfprocessorservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Faylın bir səhifəsinin OCR nəticəsi; emal yarımçıq qalıb eyni fayl yenidən göndərildikdə
+// hazır səhifələr yenidən render/OCR olunmur. Sənəd uğurla yazıldıqda silinir.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@IdClass(PageCheckpoint.Key.class)
+@Table(name = "pdf_page_checkpoints", indexes = {
+        @Index(name = "ix_pdf_page_checkpoints_created_at", columnList = "created_at")
+})
+public class PageCheckpoint {
+
+    @Id
+    @Column(name = "file_hash", length = 64)
+    private String fileHash; // Yüklənmiş faylın baytları üzərindən SHA-256
+
+    @Id
+    @Column(name = "page_index")
+    private int pageIndex; // 0-dan
+
+    @Column(nullable = false, length = 64)
+    private String languages; // OCR dil dəsti
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String text;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String fileHash;
+        private int pageIndex;
+    }
+}
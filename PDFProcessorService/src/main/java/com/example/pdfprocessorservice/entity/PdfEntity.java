@@ -1,9 +1,12 @@
 package com.example.pdfprocessorservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Getter
 @Setter
@@ -11,11 +14,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "pdf_files")
+@Table(name = "pdf_files", indexes = {
+        @Index(name = "ux_pdf_files_file_hash", columnList = "file_hash", unique = true),
+        @Index(name = "ux_pdf_files_hash", columnList = "hash", unique = true),
+        @Index(name = "ix_pdf_files_file_name", columnList = "file_name")
+})
 public class PdfEntity {
 
+    // Sequence (50-lik bloklar) Hibernate-ə insert-ləri JDBC batch ilə göndərməyə imkan verir; IDENTITY hər sətir üçün ayrıca insert tələb edirdi
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pdf_files_seq")
+    @SequenceGenerator(name = "pdf_files_seq", sequenceName = "pdf_files_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -33,6 +42,30 @@ public class PdfEntity {
     @Column(columnDefinition = "TEXT")
     private String metadata;
 
-    @Column
+    @Column(length = 64)
     private String hash; // SHA-256 hash
-}
\ No newline at end of file
+
+    @Column(name = "file_hash", length = 64)
+    private String fileHash; // Yüklənmiş faylın baytları üzərindən SHA-256 hash
+
+    @Column(columnDefinition = "TEXT")
+    private String pageStrategies; // Hər səhifə üçün ExtractionStrategy, vergüllə ayrılmış (səhifə sırası ilə)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    @Builder.Default
+    private PdfStatus status = PdfStatus.PROCESSED;
+
+    // Tipli sətirlər ayrıca endpoint ilə verilir (/api/pdf/{id}/rows), PdfEntity JSON-una daxil edilmir
+    @JsonIgnore
+    @OneToMany(mappedBy = "pdf", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("rowIndex ASC")
+    @Builder.Default
+    private List<TransactionRow> transactionRows = new ArrayList<>();
+
+    // AIService təhlil sorğuları; sənədlə eyni tranzaksiyada yazılır (AiOutboxDispatcher göndərir)
+    @JsonIgnore
+    @OneToMany(mappedBy = "pdf", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    private List<AiOutboxEntry> aiOutboxEntries = new ArrayList<>();
+}
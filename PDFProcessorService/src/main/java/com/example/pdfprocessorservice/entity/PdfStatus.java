@@ -0,0 +1,7 @@
+package com.example.pdfprocessorservice.entity;
+
+public enum PdfStatus {
+    PROCESSED,       // Mətn çıxarılıb, AI təhlili gözlənilir
+    ANALYZED,        // AI metadata-sı yazılıb
+    ANALYSIS_FAILED  // AI təhlili uğursuz oldu
+}
@@ -0,0 +1,59 @@
+package com.example.pdfprocessorservice.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Çıxarışdan təhlil olunmuş bir əməliyyat sətri
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "pdf_transaction_rows", indexes = {
+        @Index(name = "ix_pdf_transaction_rows_pdf_row", columnList = "pdf_id, row_index"),
+        @Index(name = "ix_pdf_transaction_rows_occurred_at", columnList = "occurred_at")
+})
+public class TransactionRow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pdf_transaction_rows_seq")
+    @SequenceGenerator(name = "pdf_transaction_rows_seq", sequenceName = "pdf_transaction_rows_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "pdf_id", nullable = false)
+    private PdfEntity pdf;
+
+    @Column(name = "row_index", nullable = false)
+    private int rowIndex; // Sənəddəki sıra
+
+    @Column(nullable = false)
+    private int page; // Sətrin başladığı səhifə (0-dan)
+
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt; // Saat yoxdursa 00:00
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal fee;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal vat;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private double confidence; // 0..1, sətrin nə qədər etibarlı təhlil olunduğu
+}
@@ -0,0 +1,24 @@
+package com.example.pdfprocessorservice.repository;
+
+import com.example.pdfprocessorservice.entity.AiOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AiOutboxRepository extends JpaRepository<AiOutboxEntry, Long> {
+
+    // Vaxtı çatmış və ya icarəsi bitmiş qeydləri kilidləyir; SKIP LOCKED sayəsində
+    // bir neçə instans eyni qeydi götürmür. Tranzaksiya daxilində çağırılmalıdır.
+    @Query(value = """
+            SELECT * FROM ai_outbox
+            WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+               OR (status = 'IN_PROGRESS' AND locked_until < :now)
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<AiOutboxEntry> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
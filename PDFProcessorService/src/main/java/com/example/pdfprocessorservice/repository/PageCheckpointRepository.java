@@ -0,0 +1,39 @@
+package com.example.pdfprocessorservice.repository;
+
+import com.example.pdfprocessorservice.entity.PageCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PageCheckpointRepository extends JpaRepository<PageCheckpoint, PageCheckpoint.Key> {
+
+    List<PageCheckpoint> findByFileHash(String fileHash);
+
+    // Eyni faylın paralel emalı eyni səhifəni yaza bilər: sonuncu nəticə qalır
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO pdf_page_checkpoints (file_hash, page_index, languages, text, created_at)
+            VALUES (:fileHash, :pageIndex, :languages, :text, :createdAt)
+            ON CONFLICT (file_hash, page_index)
+            DO UPDATE SET languages = EXCLUDED.languages, text = EXCLUDED.text, created_at = EXCLUDED.created_at
+            """, nativeQuery = true)
+    void upsert(@Param("fileHash") String fileHash, @Param("pageIndex") int pageIndex,
+                @Param("languages") String languages, @Param("text") String text,
+                @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PageCheckpoint c WHERE c.fileHash = :fileHash")
+    int deleteByFileHash(@Param("fileHash") String fileHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PageCheckpoint c WHERE c.createdAt < :threshold")
+    int deleteOlderThan(@Param("threshold") LocalDateTime threshold);
+}
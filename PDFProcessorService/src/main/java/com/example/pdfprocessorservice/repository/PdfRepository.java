@@ -1,6 +1,8 @@
 package com.example.pdfprocessorservice.repository;
 
+import com.example.pdfprocessorservice.dto.PdfSummary;
 import com.example.pdfprocessorservice.entity.PdfEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -8,7 +10,11 @@ import java.util.Optional;
 
 public interface PdfRepository extends JpaRepository<PdfEntity, Long> {
     Optional<PdfEntity> findByHash(String hash);
-    Optional<PdfEntity> findByExtractedText(String extractedText);
+    Optional<PdfEntity> findByFileHash(String fileHash);
     List<PdfEntity> findByFileName(String fileName);
     List<PdfEntity> findAll();
+
+    // Keyset səhifələmə: id üzrə artan sıra, yalnız xülasə sütunları seçilir
+    List<PdfSummary> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    List<PdfSummary> findByFileNameAndIdGreaterThanOrderByIdAsc(String fileName, Long afterId, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.pdfprocessorservice.repository;
+
+import com.example.pdfprocessorservice.entity.TransactionRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TransactionRowRepository extends JpaRepository<TransactionRow, Long> {
+    List<TransactionRow> findByPdfIdOrderByRowIndexAsc(Long pdfId);
+}
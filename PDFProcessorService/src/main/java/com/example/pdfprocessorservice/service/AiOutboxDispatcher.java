@@ -0,0 +1,237 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.client.AIClient;
+import com.example.pdfprocessorservice.dto.AIAnalysisRequest;
+import com.example.pdfprocessorservice.dto.AIAnalysisResponse;
+import com.example.pdfprocessorservice.dto.TransactionRowDto;
+import com.example.pdfprocessorservice.entity.AiOutboxEntry;
+import com.example.pdfprocessorservice.entity.AiOutboxStatus;
+import com.example.pdfprocessorservice.entity.PdfEntity;
+import com.example.pdfprocessorservice.entity.PdfStatus;
+import com.example.pdfprocessorservice.repository.AiOutboxRepository;
+import com.example.pdfprocessorservice.repository.PdfRepository;
+import com.example.pdfprocessorservice.repository.TransactionRowRepository;
+import com.example.pdfprocessorservice.service.PipelineMetrics.Stage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ai_outbox növbəsini AIService-ə göndərir. Qeydlər SKIP LOCKED ilə icarəyə götürülür,
+// ayrıca məhdud hovuzda (aiDispatchExecutor) göndərilir, uğursuz cəhdlər eksponensial gecikmə ilə təkrarlanır.
+// Tətbiq dayanarsa IN_PROGRESS qeydləri icarə (lease) bitdikdən sonra yenidən götürülür.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AiOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final AiOutboxRepository aiOutboxRepository;
+    private final PdfRepository pdfRepository;
+    private final TransactionRowRepository transactionRowRepository;
+    private final AIClient aiServiceClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final PipelineMetrics pipelineMetrics;
+    @Qualifier("aiDispatchExecutor")
+    private final AsyncTaskExecutor aiDispatchExecutor;
+
+    @Value("${pdf.ai.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.ai.outbox.concurrency:4}")
+    private int concurrency;
+
+    @Value("${pdf.ai.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${pdf.ai.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${pdf.ai.outbox.initial-backoff-ms:5000}")
+    private long initialBackoffMillis;
+
+    @Value("${pdf.ai.outbox.max-backoff-ms:900000}")
+    private long maxBackoffMillis;
+
+    @Value("${pdf.ai.outbox.lease-ms:300000}")
+    private long leaseMillis;
+
+    // Hovuzda icra olunan və ya növbədə olan göndərişlər; yalnız boş yer qədər qeyd götürülür
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private record Claim(Long entryId, Long pdfId, int attempt) {
+    }
+
+    @Scheduled(fixedDelayString = "${pdf.ai.outbox.poll-interval-ms:1000}")
+    public void dispatchDue() {
+        if (!enabled) {
+            return;
+        }
+        int capacity = Math.min(batchSize, concurrency - inFlight.get());
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<Claim> claims = transactionTemplate.execute(status -> claim(capacity));
+        if (claims == null || claims.isEmpty()) {
+            return;
+        }
+        log.debug("AI outbox: {} qeyd götürüldü", claims.size());
+
+        for (Claim claim : claims) {
+            inFlight.incrementAndGet();
+            try {
+                aiDispatchExecutor.execute(() -> {
+                    try {
+                        deliver(claim);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                inFlight.decrementAndGet();
+                // Hovuz bağlanır: qeyd icarə bitdikdən sonra yenidən götürüləcək
+                log.warn("AI outbox göndərişi rədd edildi (qeyd {}): {}", claim.entryId(), e.getMessage());
+            }
+        }
+    }
+
+    private List<Claim> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AiOutboxEntry> due = aiOutboxRepository.lockDue(now, limit);
+        for (AiOutboxEntry entry : due) {
+            if (entry.getStatus() == AiOutboxStatus.IN_PROGRESS) {
+                log.warn("AI outbox qeydinin icarəsi bitib, yenidən göndərilir: {} (PDF ID: {})",
+                        entry.getId(), entry.getPdf().getId());
+            }
+            // Cəhd götürülən anda sayılır ki, prosesi çökdürən sorğu sonsuz təkrarlanmasın
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setStatus(AiOutboxStatus.IN_PROGRESS);
+            entry.setLockedUntil(now.plus(leaseMillis, ChronoUnit.MILLIS));
+            entry.setUpdatedAt(now);
+        }
+        return due.stream()
+                .map(entry -> new Claim(entry.getId(), entry.getPdf().getId(), entry.getAttempts()))
+                .toList();
+    }
+
+    // Sətirlər təhlil olunubsa AIService-ə yalnız onlar göndərilir, mətn yenidən təhlil olunmur
+    private void deliver(Claim claim) {
+        try {
+            Optional<PdfEntity> optionalPdf = pdfRepository.findById(claim.pdfId());
+            if (optionalPdf.isEmpty()) {
+                complete(claim, null);
+                return;
+            }
+            PdfEntity pdf = optionalPdf.get();
+            List<TransactionRowDto> rows = transactionRowRepository.findByPdfIdOrderByRowIndexAsc(claim.pdfId())
+                    .stream().map(TransactionRowDto::from).toList();
+
+            AIAnalysisRequest request = AIAnalysisRequest.builder()
+                    .pdfId(claim.pdfId().toString()) // Long-dan String-ə çevrilmə
+                    .extractedText(rows.isEmpty() ? pdf.getExtractedText() : null)
+                    .rows(rows.isEmpty() ? null : rows)
+                    .analysisType("METADATA_COMPLETION")
+                    .hash(pdf.getHash())
+                    .build();
+
+            Timer.Sample dispatchSample = pipelineMetrics.start();
+            AIAnalysisResponse response;
+            try {
+                response = aiServiceClient.analyzeText(request);
+            } finally {
+                pipelineMetrics.stop(dispatchSample, Stage.AI_DISPATCH);
+            }
+
+            if (response != null && response.isSuccess() && response.getExtractedMetadata() != null) {
+                complete(claim, convertMetadataToJsonString(response.getExtractedMetadata()));
+            } else {
+                retryOrFail(claim, response == null ? "AI xidməti boş cavab qaytardı" : response.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("AI təhlilində xəta (PDF ID: {}, cəhd {}): {}", claim.pdfId(), claim.attempt(), e.getMessage());
+            retryOrFail(claim, e.getMessage());
+        }
+    }
+
+    private void complete(Claim claim, String metadata) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (metadata != null) {
+                pdfRepository.findById(claim.pdfId()).ifPresent(pdf -> {
+                    pdf.setMetadata(metadata);
+                    pdf.setStatus(PdfStatus.ANALYZED);
+                });
+            }
+            aiOutboxRepository.findById(claim.entryId()).ifPresent(entry -> {
+                entry.setStatus(AiOutboxStatus.DONE);
+                entry.setLockedUntil(null);
+                entry.setLastError(null);
+                entry.setUpdatedAt(LocalDateTime.now());
+            });
+        });
+        log.info("PDF metadata ID üçün yeniləndi: {}", claim.pdfId());
+    }
+
+    private void retryOrFail(Claim claim, String error) {
+        boolean exhausted = claim.attempt() >= maxAttempts;
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            aiOutboxRepository.findById(claim.entryId()).ifPresent(entry -> {
+                entry.setStatus(exhausted ? AiOutboxStatus.FAILED : AiOutboxStatus.PENDING);
+                entry.setNextAttemptAt(exhausted ? now : now.plus(backoffMillis(claim.attempt()), ChronoUnit.MILLIS));
+                entry.setLockedUntil(null);
+                entry.setLastError(truncate(error));
+                entry.setUpdatedAt(now);
+            });
+            if (exhausted) {
+                pdfRepository.findById(claim.pdfId()).ifPresent(pdf -> pdf.setStatus(PdfStatus.ANALYSIS_FAILED));
+            }
+        });
+        if (exhausted) {
+            log.warn("AI təhlili PDF ID üçün uğursuz oldu ({} cəhd): {}", claim.attempt(), claim.pdfId());
+        } else {
+            log.info("AI təhlili PDF ID üçün təkrarlanacaq: {} (cəhd {}/{})", claim.pdfId(), claim.attempt(), maxAttempts);
+        }
+    }
+
+    // initialBackoff * 2^(cəhd-1), maxBackoff ilə məhdud; eyni anda düşən qeydlər yayılsın deyə 0-20% jitter
+    private long backoffMillis(int attempt) {
+        long delay = initialBackoffMillis << Math.min(attempt - 1, 20);
+        delay = Math.min(delay < 0 ? maxBackoffMillis : delay, maxBackoffMillis);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private String convertMetadataToJsonString(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            log.error("Metadata JSON-a çevrilərkən xəta", e);
+            return "{}";
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.pdfprocessorservice.service;
 
+import com.example.pdfprocessorservice.util.SpooledUpload;
 import io.minio.MinioClient;
 import io.minio.errors.MinioException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -15,6 +17,7 @@ import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class MinioService {
 
     private final MinioClient minioClient;
@@ -22,28 +25,53 @@ public class MinioService {
     @Value("${minio.bucket-name}")
     private String bucketName;
 
-    // Fayl yükləmə metodu
-    public String uploadFile(MultipartFile file) throws IOException {
+    private volatile boolean bucketReady;
+
+    // Bucket tətbiq başlayanda bir dəfə yoxlanılır/yaradılır, hər yükləmədə yox
+    @PostConstruct
+    public void provisionBucket() {
+        try {
+            ensureBucket();
+        } catch (IOException e) {
+            log.warn("MinIO bucket başlanğıcda hazırlana bilmədi, ilk yükləmədə yenidən yoxlanılacaq: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void ensureBucket() throws IOException {
+        if (bucketReady) {
+            return;
+        }
         try {
-            // Bucket yoxlaması
             boolean bucketExists = minioClient.bucketExists(
                     io.minio.BucketExistsArgs.builder().bucket(bucketName).build());
             if (!bucketExists) {
                 minioClient.makeBucket(
                         io.minio.MakeBucketArgs.builder().bucket(bucketName).build());
-                return "Bucket again created";
+                log.info("MinIO bucket yaradıldı: {}", bucketName);
             }
+            bucketReady = true;
+        } catch (MinioException | InvalidKeyException | NoSuchAlgorithmException e) {
+            throw new IOException("MinIO bucket hazırlana bilmədi: " + e.getMessage(), e);
+        }
+    }
 
+    // Fayl yükləmə metodu
+    public String uploadFile(SpooledUpload upload) throws IOException {
+        if (!bucketReady) {
+            ensureBucket();
+        }
+        try {
             // Unikal fayl adı yaradılır
-            String uniqueFileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
+            String uniqueFileName = UUID.randomUUID() + "_" + upload.getOriginalFilename();
 
-            // MultipartFile-dan InputStream alınır
-            try (InputStream fileStream = file.getInputStream()) {
+            // Diskdəki müvəqqəti fayl axın şəklində göndərilir, heap-ə tam oxunmur
+            try (InputStream fileStream = upload.openStream()) {
                 minioClient.putObject(
                         io.minio.PutObjectArgs.builder()
                                 .bucket(bucketName)
                                 .object(uniqueFileName)
-                                .stream(fileStream, file.getSize(), -1)
+                                .stream(fileStream, upload.getSize(), -1)
+                                .contentType("application/pdf")
                                 .build());
             }
 
@@ -54,19 +82,45 @@ public class MinioService {
         }
     }
 
-    // Fayl endirmə metodu
-    public byte[] downloadFile(String objectName) throws IOException {
+    // Emal uğursuz olduqda yetim qalmış obyekti silir
+    public void removeFile(String objectName) throws IOException {
+        try {
+            minioClient.removeObject(
+                    io.minio.RemoveObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .build());
+        } catch (MinioException | InvalidKeyException | NoSuchAlgorithmException e) {
+            throw new IOException("MinIO obyekti silinmədi: " + e.getMessage(), e);
+        }
+    }
+
+    // Obyektin ölçüsü (bayt) və MinIO ETag-i
+    public io.minio.StatObjectResponse statFile(String objectName) throws IOException {
+        try {
+            return minioClient.statObject(
+                    io.minio.StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .build());
+        } catch (MinioException | InvalidKeyException | NoSuchAlgorithmException e) {
+            throw new IOException("MinIO obyekt məlumatı alınmadı: " + e.getMessage(), e);
+        }
+    }
+
+    // Fayl endirmə metodu: obyekt (və ya onun bir hissəsi) yaddaşa yığılmadan axın kimi qaytarılır.
+    // Axını bağlamaq çağıranın məsuliyyətidir.
+    public InputStream openFile(String objectName, long offset, long length) throws IOException {
         try {
-            // MinIO-dan faylı al və resursları təmizlə
-            try (InputStream stream = minioClient.getObject(
+            return minioClient.getObject(
                     io.minio.GetObjectArgs.builder()
                             .bucket(bucketName)
                             .object(objectName)
-                            .build())) {
-                return stream.readAllBytes();
-            }
+                            .offset(offset)
+                            .length(length)
+                            .build());
         } catch (MinioException | InvalidKeyException | NoSuchAlgorithmException e) {
             throw new IOException("MinIO-dan fayl endirilməsi uğursuz oldu: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
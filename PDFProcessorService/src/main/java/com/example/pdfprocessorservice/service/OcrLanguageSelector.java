@@ -0,0 +1,104 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.util.TesseractPools;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+// Sənəd üçün ən kiçik Tesseract dil dəstini seçir. Üç modelli "eng+aze+aze_cyrl" hər qlifi üç modellə
+// yoxlayır; çıxarışların demək olar hamısı latın qrafikalı olduğu üçün adətən "eng+aze" kifayətdir.
+// Əlifba mətn qatından (varsa) və ya tam dəstlə OCR olunmuş ilk səhifədən hərflər sayılaraq təyin edilir.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OcrLanguageSelector {
+
+    private final TesseractPools tesseractPools;
+
+    @Value("${pdf.ocr.languages.auto-detect:true}")
+    private boolean autoDetect;
+
+    @Value("${pdf.ocr.languages.latin:eng+aze}")
+    private String latinLanguages;
+
+    @Value("${pdf.ocr.languages.cyrillic:aze_cyrl+eng}")
+    private String cyrillicLanguages;
+
+    @Value("${pdf.ocr.languages.min-letters:40}")
+    private int minLetters;
+
+    @Value("${pdf.ocr.languages.script-threshold:0.2}")
+    private double scriptThreshold;
+
+    // Dil hələ bilinmədikdə istifadə olunan dəst
+    public String getDefaultLanguages() {
+        return tesseractPools.getDefaultLanguages();
+    }
+
+    // Mətn qatından (qismən olsa belə) dil dəsti; hərf azdırsa boşdur və ilk OCR səhifəsi nümunə kimi istifadə olunur
+    public Optional<String> fromTextLayer(List<String> pageTexts) {
+        if (!autoDetect) {
+            return Optional.of(getDefaultLanguages());
+        }
+        LetterCounts counts = new LetterCounts();
+        pageTexts.forEach(counts::add);
+        return counts.total() < minLetters ? Optional.empty() : Optional.of(select(counts));
+    }
+
+    // Tam dəstlə OCR olunmuş nümunə mətnə görə qalan səhifələrin dil dəsti
+    public String fromOcrSample(String sampleText) {
+        if (!autoDetect) {
+            return getDefaultLanguages();
+        }
+        LetterCounts counts = new LetterCounts();
+        counts.add(sampleText);
+        return counts.total() < minLetters ? getDefaultLanguages() : select(counts);
+    }
+
+    private String select(LetterCounts counts) {
+        double latinShare = (double) counts.latin / counts.total();
+        double cyrillicShare = (double) counts.cyrillic / counts.total();
+        String languages;
+        if (cyrillicShare < scriptThreshold) {
+            languages = latinLanguages;
+        } else if (latinShare < scriptThreshold) {
+            languages = cyrillicLanguages;
+        } else {
+            languages = getDefaultLanguages(); // Hər iki əlifba kifayət qədər var
+        }
+        log.debug("OCR dil dəsti: {} (latın: {}, kiril: {})", languages, counts.latin, counts.cyrillic);
+        return languages;
+    }
+
+    private static final class LetterCounts {
+        private int latin;
+        private int cyrillic;
+
+        void add(String text) {
+            if (text == null) {
+                return;
+            }
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                i += Character.charCount(codePoint);
+                if (!Character.isLetter(codePoint)) {
+                    continue;
+                }
+                Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+                if (script == Character.UnicodeScript.LATIN) {
+                    latin++;
+                } else if (script == Character.UnicodeScript.CYRILLIC) {
+                    cyrillic++;
+                }
+            }
+        }
+
+        int total() {
+            return latin + cyrillic;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.dto.OcrCacheStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Səhifə OCR nəticələrinin məzmun ünvanlı keşi.
+// Açar binarlaşdırılmış şəklin baytları, OCR bölgəsi və Tesseract dil dəsti üzərindən SHA-256-dır,
+// ona görə eyni bankın təkrarlanan səhifələri (şərtlər, başlıqlar, üst-üstə düşən dövrlər) yenidən OCR olunmur.
+// Yaddaşdakı LRU ölçüyə görə məhdudlaşdırılır; istəyə görə Redis ikinci səviyyə kimi istifadə olunur.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OcrResultCache {
+
+    private static final String REDIS_KEY_PREFIX = "pdf:ocr:";
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${pdf.ocr.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.ocr.cache.max-size-mb:64}")
+    private long maxSizeMb;
+
+    @Value("${pdf.ocr.cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${pdf.ocr.cache.redis.ttl-hours:720}")
+    private long redisTtlHours;
+
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long sizeBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String fingerprint(BufferedImage image, Rectangle region, String languages) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        digest.update((languages + "|" + image.getWidth() + "x" + image.getHeight() + "|"
+                + (region == null ? "page" : region.x + "," + region.y + "," + region.width + "," + region.height))
+                .getBytes(StandardCharsets.UTF_8));
+
+        Raster raster = image.getRaster();
+        if (raster.getDataBuffer() instanceof DataBufferByte buffer
+                && raster.getSampleModel() instanceof ComponentSampleModel sampleModel
+                && sampleModel.getPixelStride() == 1) {
+            byte[] pixels = buffer.getData();
+            int stride = sampleModel.getScanlineStride();
+            int offset = buffer.getOffset()
+                    - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+            for (int y = 0; y < image.getHeight(); y++) {
+                digest.update(pixels, offset + y * stride, image.getWidth());
+            }
+        } else {
+            int[] row = new int[image.getWidth()];
+            byte[] rowBytes = new byte[row.length * 4];
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.getRGB(0, y, row.length, 1, row, 0, row.length);
+                for (int x = 0; x < row.length; x++) {
+                    rowBytes[x * 4] = (byte) (row[x] >>> 24);
+                    rowBytes[x * 4 + 1] = (byte) (row[x] >>> 16);
+                    rowBytes[x * 4 + 2] = (byte) (row[x] >>> 8);
+                    rowBytes[x * 4 + 3] = (byte) row[x];
+                }
+                digest.update(rowBytes);
+            }
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            String text = entries.get(key);
+            if (text != null) {
+                hits.incrementAndGet();
+                return Optional.of(text);
+            }
+        }
+        StringRedisTemplate redis = redisTemplate();
+        if (redis != null) {
+            try {
+                String text = redis.opsForValue().get(REDIS_KEY_PREFIX + key);
+                if (text != null) {
+                    redisHits.incrementAndGet();
+                    putLocal(key, text);
+                    return Optional.of(text);
+                }
+            } catch (RuntimeException e) {
+                log.warn("OCR keşi Redis-dən oxunmadı: {}", e.getMessage());
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(String key, String text) {
+        if (!enabled) {
+            return;
+        }
+        putLocal(key, text);
+        StringRedisTemplate redis = redisTemplate();
+        if (redis != null) {
+            try {
+                redis.opsForValue().set(REDIS_KEY_PREFIX + key, text, Duration.ofHours(redisTtlHours));
+            } catch (RuntimeException e) {
+                log.warn("OCR keşi Redis-ə yazılmadı: {}", e.getMessage());
+            }
+        }
+    }
+
+    public synchronized OcrCacheStats getStats() {
+        return new OcrCacheStats(hits.get(), redisHits.get(), misses.get(), evictions.get(),
+                entries.size(), sizeBytes, maxSizeBytes(), redisTemplate() != null);
+    }
+
+    private synchronized void putLocal(String key, String text) {
+        String previous = entries.put(key, text);
+        if (previous != null) {
+            sizeBytes -= weight(key, previous);
+        }
+        sizeBytes += weight(key, text);
+
+        // Ən az istifadə olunan qeydlər limitə qədər silinir
+        Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxSizeBytes() && eldest.hasNext()) {
+            Map.Entry<String, String> entry = eldest.next();
+            sizeBytes -= weight(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private long maxSizeBytes() {
+        return maxSizeMb * 1024 * 1024;
+    }
+
+    // Java String-in təxmini yaddaş ölçüsü
+    private static long weight(String key, String text) {
+        return 2L * (key.length() + text.length()) + 64;
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.entity.PageCheckpoint;
+import com.example.pdfprocessorservice.repository.PageCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Səhifə üzrə OCR nəticələrini faylın SHA-256-sı ilə saxlayır. Emal MinIO, baza və ya başqa xəta ilə
+// yarımçıq qalıb eyni fayl yenidən göndərildikdə artıq OCR olunmuş səhifələr render/OCR olunmur.
+// Checkpoint xətaları emalı dayandırmır: ən pis halda səhifə yenidən OCR olunur.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PageCheckpointStore {
+
+    private final PageCheckpointRepository pageCheckpointRepository;
+
+    @Value("${pdf.checkpoints.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.checkpoints.retention-hours:24}")
+    private long retentionHours;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Səhifə indeksi -> mətn; checkpoint yoxdursa boş
+    public Map<Integer, String> load(String fileHash) {
+        Map<Integer, String> pages = new HashMap<>();
+        if (!enabled || fileHash == null) {
+            return pages;
+        }
+        try {
+            for (PageCheckpoint checkpoint : pageCheckpointRepository.findByFileHash(fileHash)) {
+                pages.put(checkpoint.getPageIndex(), checkpoint.getText());
+            }
+            if (!pages.isEmpty()) {
+                log.info("{} səhifənin OCR nəticəsi əvvəlki cəhddən götürülür (fayl hash: {})", pages.size(), fileHash);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Səhifə checkpoint-ləri oxunmadı (fayl hash: {}): {}", fileHash, e.getMessage());
+        }
+        return pages;
+    }
+
+    // OCR thread-indən çağırılır; boş mətn (Tesseract xətası da boş qaytarır) yazılmır
+    public void save(String fileHash, int page, String languages, String text) {
+        if (!enabled || fileHash == null || text == null || text.isBlank()) {
+            return;
+        }
+        try {
+            pageCheckpointRepository.upsert(fileHash, page, languages, text, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("{} səhifəsi üçün checkpoint yazılmadı (fayl hash: {}): {}", page, fileHash, e.getMessage());
+        }
+    }
+
+    // Sənəd bazaya yazıldıqdan və ya dublikat çıxdıqdan sonra checkpoint-lərə ehtiyac qalmır
+    public void delete(String fileHash) {
+        if (!enabled || fileHash == null) {
+            return;
+        }
+        try {
+            pageCheckpointRepository.deleteByFileHash(fileHash);
+        } catch (RuntimeException e) {
+            log.warn("Checkpoint-lər silinmədi (fayl hash: {}): {}", fileHash, e.getMessage());
+        }
+    }
+
+    // Təkrar göndərilməyən faylların checkpoint-ləri saxlanma müddətindən sonra silinir
+    @Scheduled(fixedDelayString = "${pdf.checkpoints.cleanup-interval-ms:3600000}")
+    public void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+        int removed = pageCheckpointRepository.deleteOlderThan(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.info("{} köhnə səhifə checkpoint-i silindi", removed);
+        }
+    }
+}
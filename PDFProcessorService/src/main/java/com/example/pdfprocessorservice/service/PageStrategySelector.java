@@ -0,0 +1,123 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.entity.ExtractionStrategy;
+import com.example.pdfprocessorservice.util.PageProbe;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.pdmodel.font.PDType3Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.util.Matrix;
+import org.apache.pdfbox.util.Vector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Hər səhifənin PDFBox mətn qatını yoxlayır və OCR-ın lazım olub-olmadığına qərar verir.
+// Rəqəmsal yaradılmış çıxarışlarda mətn qatı kifayətdir, 300 DPI render + Tesseract yalnız skan səhifələr üçün qalır.
+@Service
+@Slf4j
+public class PageStrategySelector {
+
+    @Value("${pdf.extraction.text-layer-first:true}")
+    private boolean textLayerFirst;
+
+    @Value("${pdf.extraction.text-layer.min-chars:40}")
+    private int minChars;
+
+    @Value("${pdf.extraction.text-layer.min-glyph-coverage:0.9}")
+    private double minGlyphCoverage;
+
+    public List<PageProbe> probe(PDDocument document) throws IOException {
+        ProbingTextStripper stripper = new ProbingTextStripper();
+        List<PageProbe> probes = new ArrayList<>(document.getNumberOfPages());
+
+        for (int page = 1; page <= document.getNumberOfPages(); page++) {
+            stripper.reset();
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            String text;
+            try {
+                text = stripper.getText(document);
+            } catch (IOException e) {
+                log.warn("{} səhifəsinin mətn qatı oxunmadı, OCR istifadə olunacaq: {}", page - 1, e.getMessage());
+                probes.add(new PageProbe(page - 1, ExtractionStrategy.OCR, "", 0, 0));
+                continue;
+            }
+
+            int printableChars = countPrintable(text);
+            double glyphCoverage = stripper.glyphCount == 0 ? 0.0 : (double) stripper.mappedGlyphs / stripper.glyphCount;
+            ExtractionStrategy strategy = textLayerFirst
+                    && printableChars >= minChars
+                    && glyphCoverage >= minGlyphCoverage
+                    ? ExtractionStrategy.TEXT_LAYER
+                    : ExtractionStrategy.OCR;
+
+            log.info("{} səhifəsi: {} (simvol: {}, qlif örtüyü: {})", page - 1, strategy, printableChars,
+                    String.format("%.2f", glyphCoverage));
+            probes.add(new PageProbe(page - 1, strategy, text, stripper.glyphCount, stripper.mappedGlyphs));
+        }
+        return probes;
+    }
+
+    private int countPrintable(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Mətni çıxararkən hər qlifin Unicode xəritəsinin düzgün olub-olmadığını sayır
+    private static class ProbingTextStripper extends PDFTextStripper {
+        private int glyphCount;
+        private int mappedGlyphs;
+
+        void reset() {
+            glyphCount = 0;
+            mappedGlyphs = 0;
+        }
+
+        @Override
+        protected void showGlyph(Matrix textRenderingMatrix, PDFont font, int code, Vector displacement)
+                throws IOException {
+            glyphCount++;
+            if (isSaneFont(font) && isMeaningful(font.toUnicode(code))) {
+                mappedGlyphs++;
+            }
+            super.showGlyph(textRenderingMatrix, font, code, displacement);
+        }
+
+        // Type3 və ToUnicode cədvəli olmayan simvolik şriftlər adətən mənasız simvollar verir
+        private boolean isSaneFont(PDFont font) {
+            if (font instanceof PDType3Font) {
+                return false;
+            }
+            PDFontDescriptor descriptor = font.getFontDescriptor();
+            boolean symbolic = descriptor != null && descriptor.isSymbolic();
+            return !symbolic || font.getCOSObject().containsKey(COSName.TO_UNICODE);
+        }
+
+        private boolean isMeaningful(String unicode) {
+            if (unicode == null || unicode.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < unicode.length(); i++) {
+                char c = unicode.charAt(i);
+                if (c == '\uFFFD'
+                        || (Character.isISOControl(c) && !Character.isWhitespace(c))
+                        || Character.getType(c) == Character.PRIVATE_USE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
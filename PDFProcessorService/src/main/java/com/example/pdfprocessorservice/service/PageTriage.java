@@ -0,0 +1,148 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.entity.ExtractionStrategy;
+import com.example.pdfprocessorservice.util.ImageProcessor;
+import com.example.pdfprocessorservice.util.LineClassifier;
+import com.example.pdfprocessorservice.util.LineFeatures;
+import com.example.pdfprocessorservice.util.PageProbe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// OCR-a göndəriləcək səhifələri 300 DPI render-dən əvvəl süzür: üz qabığı, şərtlər və xülasə
+// səhifələri kimi əməliyyat ola bilməyən səhifələr SKIPPED olaraq işarələnir.
+// Səhifə yalnız müsbət sübutla buraxılır: etibarlı mətn qatında tarix/məbləğ sətri yoxdur, kiçik render boşdur
+// və ya kiçik render-də bir dənə də cədvəl sətri yoxdur. Şübhəli halda səhifə OCR olunur, çünki buraxılmış
+// səhifənin əməliyyatları xəta vermədən itir.
+// Mətn qatı cədvəl vermədiyi üçün OCR-a məcburi keçirilmiş səhifələrdə (probe TEXT_LAYER, strategiya OCR)
+// mətn qatı ipucuna etibar olunmur: OCR məhz o mətn qatında tapılmayan sətirlər üçün işləyir.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PageTriage {
+
+    public enum Mode {
+        OFF,      // Triage işləmir
+        LOG_ONLY, // Qərarlar yalnız log-a yazılır, bütün səhifələr OCR olunur
+        ENFORCE   // Əməliyyat olmayan səhifələr buraxılır
+    }
+
+    private final ImageProcessor imageProcessor;
+    private final TableRegionDetector tableRegionDetector;
+
+    @Value("${pdf.extraction.triage.mode:ENFORCE}")
+    private Mode mode;
+
+    // Sazlama üçün: bu səhifələr (0-dan başlayan indeks) heç vaxt buraxılmır
+    @Value("${pdf.extraction.triage.force-pages:}")
+    private Set<Integer> forcePages;
+
+    @Value("${pdf.extraction.triage.thumbnail-dpi:72}")
+    private int thumbnailDpi;
+
+    // Mətn qatı yalnız bu qədər etibarlı olduqda "əməliyyat yoxdur" qərarı üçün istifadə olunur
+    @Value("${pdf.extraction.triage.text-hint-min-coverage:0.9}")
+    private double textHintMinCoverage;
+
+    @Value("${pdf.extraction.triage.text-hint-min-chars:200}")
+    private int textHintMinChars;
+
+    // 72 DPI-da mətn sətri bir neçə piksel hündürlükdədir: OCR kəsimi üçün olan min-rows (3) burada
+    // bir-iki əməliyyatlı son səhifəni buraxdırırdı, ona görə triage-in öz həddi var
+    @Value("${pdf.extraction.triage.min-table-rows:1}")
+    private int minTableRows;
+
+    // Bundan az qara piksel olan kiçik render boş səhifə sayılır
+    @Value("${pdf.extraction.triage.min-ink-fraction:0.002}")
+    private double minInkFraction;
+
+    // OCR strategiyalı səhifələrdən əməliyyat ola bilməyənləri SKIPPED edir (yalnız ENFORCE rejimində)
+    public void triage(PDDocument document, List<PageProbe> probes, List<ExtractionStrategy> strategies) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        PDFRenderer thumbnailRenderer = new PDFRenderer(document);
+        for (int page = 0; page < strategies.size(); page++) {
+            if (strategies.get(page) != ExtractionStrategy.OCR) {
+                continue;
+            }
+            Optional<String> skipReason = skipReason(thumbnailRenderer, probes.get(page));
+            if (skipReason.isEmpty()) {
+                log.info("Triage: {} səhifəsi OCR olunacaq", page);
+            } else if (forcePages != null && forcePages.contains(page)) {
+                log.info("Triage: {} səhifəsi buraxılardı ({}), lakin force-pages ilə saxlanılır", page, skipReason.get());
+            } else if (mode == Mode.LOG_ONLY) {
+                log.info("Triage: {} səhifəsi buraxılardı ({}), LOG_ONLY rejimi", page, skipReason.get());
+            } else {
+                log.info("Triage: {} səhifəsi buraxılır ({})", page, skipReason.get());
+                strategies.set(page, ExtractionStrategy.SKIPPED);
+            }
+        }
+    }
+
+    private Optional<String> skipReason(PDFRenderer renderer, PageProbe probe) {
+        String text = probe.getText() == null ? "" : probe.getText();
+
+        // 1. Mətn qatındakı ipucları: cədvəl başlığı və ya tarix+məbləğ sətirləri varsa səhifə saxlanılır
+        int transactionLines = 0;
+        for (String line : text.split("\n")) {
+            LineFeatures features = LineClassifier.classify(line);
+            if (features.isHeader()) {
+                return Optional.empty();
+            }
+            if (features.isTransactionLike()) {
+                transactionLines++;
+            }
+        }
+        if (transactionLines > 0) {
+            return Optional.empty();
+        }
+        double coverage = probe.getGlyphCount() == 0 ? 0.0 : (double) probe.getMappedGlyphs() / probe.getGlyphCount();
+        boolean forcedToOcr = probe.getStrategy() != ExtractionStrategy.OCR;
+        if (!forcedToOcr && coverage >= textHintMinCoverage && text.strip().length() >= textHintMinChars) {
+            return Optional.of("etibarlı mətn qatında tarix/məbləğ sətri yoxdur");
+        }
+
+        // 2. Kiçik render: boş səhifə və ya cədvəl quruluşu olmayan səhifə
+        BufferedImage thumbnail;
+        try {
+            thumbnail = renderer.renderImageWithDPI(probe.getPageIndex(), thumbnailDpi, ImageType.GRAY);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Triage: {} səhifəsinin kiçik render-i alınmadı: {}", probe.getPageIndex(), e.getMessage());
+            return Optional.empty();
+        }
+        BufferedImage binary = imageProcessor.enhanceImage(thumbnail);
+        if (inkFraction(binary) < minInkFraction) {
+            return Optional.of("boş səhifə");
+        }
+        if (tableRegionDetector.findTable(binary, thumbnailDpi, minTableRows).isEmpty()) {
+            return Optional.of("cədvəl sətri tapılmadı");
+        }
+        return Optional.empty();
+    }
+
+    private double inkFraction(BufferedImage binary) {
+        if (binary.getType() != BufferedImage.TYPE_BYTE_GRAY) {
+            return 1.0;
+        }
+        byte[] pixels = ((DataBufferByte) binary.getRaster().getDataBuffer()).getData();
+        long black = 0;
+        for (byte pixel : pixels) {
+            if (pixel == 0) {
+                black++;
+            }
+        }
+        return (double) black / pixels.length;
+    }
+}
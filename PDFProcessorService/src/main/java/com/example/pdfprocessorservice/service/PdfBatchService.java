@@ -0,0 +1,306 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.dto.BatchItemResult;
+import com.example.pdfprocessorservice.dto.BatchItemResult.Status;
+import com.example.pdfprocessorservice.dto.BatchManifest;
+import com.example.pdfprocessorservice.entity.PdfEntity;
+import com.example.pdfprocessorservice.repository.PdfRepository;
+import com.example.pdfprocessorservice.service.PipelineMetrics.Stage;
+import com.example.pdfprocessorservice.util.PreparedPdf;
+import com.example.pdfprocessorservice.util.ProgressListener;
+import com.example.pdfprocessorservice.util.SpooledUpload;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Çoxlu PDF-in (ayrı fayllar və ya ZIP arxivi) bir sorğu ilə idxalı.
+// Sənədlər pdfBatchExecutor-da paralel hazırlanır, onların OCR səhifələri isə ümumi ocrTaskExecutor-a düşür,
+// ona görə ümumi müddət sorğu sayı ilə deyil, CPU həcmi ilə məhdudlaşır.
+// Hazırlanmış PdfEntity-lər saveAll ilə hissə-hissə yazılır.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PdfBatchService {
+
+    private final PdfProcessorService pdfProcessorService;
+    private final PdfRepository pdfRepository;
+    private final UploadSpooler uploadSpooler;
+    private final PipelineMetrics pipelineMetrics;
+    private final PageCheckpointStore pageCheckpointStore;
+    @Qualifier("pdfBatchExecutor")
+    private final ThreadPoolTaskExecutor pdfBatchExecutor;
+
+    @Value("${pdf.batch.max-files:500}")
+    private int maxFiles;
+
+    @Value("${pdf.batch.max-entry-bytes:104857600}")
+    private long maxEntryBytes;
+
+    @Value("${pdf.batch.insert-chunk-size:50}")
+    private int insertChunkSize;
+
+    public BatchManifest processFiles(List<MultipartFile> files) throws IOException {
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("Paketdə ən çox " + maxFiles + " fayl ola bilər");
+        }
+        List<SpooledUpload> uploads = new ArrayList<>(files.size());
+        List<BatchItemResult> rejected = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                try {
+                    uploads.add(uploadSpooler.spool(file));
+                } catch (IOException e) {
+                    log.warn("Fayl diskə yazılmadı {}: {}", file.getOriginalFilename(), e.getMessage());
+                    rejected.add(failed(file.getOriginalFilename(), e.getMessage()));
+                }
+            }
+            return process(uploads, rejected);
+        } finally {
+            uploads.forEach(SpooledUpload::close);
+        }
+    }
+
+    // ZIP-dəki .pdf faylları (qovluqlar daxil) ayrı-ayrı diskə yazılır, digər fayllar nəzərə alınmır.
+    // Çox böyük və ya zədəli qeyd bütün paketi dayandırmır: manifestdə FAILED kimi qeyd olunur.
+    public BatchManifest processArchive(MultipartFile archive) throws IOException {
+        List<SpooledUpload> uploads = new ArrayList<>();
+        List<BatchItemResult> rejected = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+            while (true) {
+                ZipEntry entry;
+                try {
+                    entry = zip.getNextEntry();
+                } catch (IOException e) {
+                    // Arxiv quruluşu pozulub: sonrakı qeydlər tapıla bilmir, o vaxta qədər oxunanlar emal olunur
+                    log.warn("Arxiv {} sonuna qədər oxunmadı: {}", archive.getOriginalFilename(), e.getMessage());
+                    rejected.add(failed(archive.getOriginalFilename(), "Arxivin qalanı oxunmadı: " + e.getMessage()));
+                    break;
+                }
+                if (entry == null) {
+                    break;
+                }
+                if (entry.isDirectory() || !entry.getName().toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                    continue;
+                }
+                if (uploads.size() + rejected.size() >= maxFiles) {
+                    throw new IllegalArgumentException("Arxivdə ən çox " + maxFiles + " PDF ola bilər");
+                }
+                String fileName = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                try {
+                    uploads.add(uploadSpooler.spool(new LimitedInputStream(zip, maxEntryBytes, fileName), fileName));
+                } catch (IOException e) {
+                    // Qeydin qalanını getNextEntry ötürür
+                    log.warn("Arxivdəki fayl buraxıldı {}: {}", fileName, e.getMessage());
+                    rejected.add(failed(fileName, e.getMessage()));
+                }
+            }
+            return process(uploads, rejected);
+        } finally {
+            uploads.forEach(SpooledUpload::close);
+        }
+    }
+
+    // rejected: diskə yazıla bilməyən fayllar, manifestin sonuna əlavə olunur
+    private BatchManifest process(List<SpooledUpload> uploads, List<BatchItemResult> rejected) {
+        long started = System.currentTimeMillis();
+        log.info("Toplu emal başladı: {} fayl", uploads.size());
+
+        // 1. Bütün sənədlər paralel hazırlanır (render, OCR, sətir təhlili)
+        List<Future<PreparedPdf>> futures = new ArrayList<>(uploads.size());
+        for (SpooledUpload upload : uploads) {
+            futures.add(pdfBatchExecutor.submit(() -> pdfProcessorService.preparePdf(upload, ProgressListener.NONE)));
+        }
+
+        BatchItemResult[] results = new BatchItemResult[uploads.size()];
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<PreparedPdf> pending = new ArrayList<>();
+        Map<String, Integer> seenHashes = new HashMap<>();
+
+        for (int i = 0; i < uploads.size(); i++) {
+            SpooledUpload upload = uploads.get(i);
+            PreparedPdf prepared;
+            try {
+                prepared = awaitPrepared(futures.get(i));
+            } catch (Exception e) {
+                log.error("Toplu emalda fayl uğursuz oldu {}: {}", upload.getOriginalFilename(), e.getMessage());
+                results[i] = failed(upload, e);
+                continue;
+            }
+            if (prepared.isDuplicate()) {
+                results[i] = duplicate(upload, prepared.getExisting().getId());
+                continue;
+            }
+
+            // 2. Eyni paketdə təkrarlanan fayl/mətn: yalnız birincisi yazılır
+            PdfEntity entity = prepared.getEntity();
+            Integer first = seenHashes.get(entity.getFileHash());
+            if (first == null) {
+                first = seenHashes.get(entity.getHash());
+            }
+            if (first != null) {
+                pdfProcessorService.discardPrepared(prepared);
+                results[i] = BatchItemResult.builder().fileName(upload.getOriginalFilename()).status(Status.DUPLICATE)
+                        .fileHash(upload.getSha256()).error("Paketdə təkrarlanır: " + uploads.get(first).getOriginalFilename())
+                        .build();
+                continue;
+            }
+            seenHashes.put(entity.getFileHash(), i);
+            seenHashes.put(entity.getHash(), i);
+            pendingIndexes.add(i);
+            pending.add(prepared);
+        }
+
+        // 3. Hazırlanmış sənədlər hissə-hissə yazılır
+        for (int from = 0; from < pending.size(); from += Math.max(1, insertChunkSize)) {
+            int to = Math.min(pending.size(), from + Math.max(1, insertChunkSize));
+            storeChunk(pending.subList(from, to), pendingIndexes.subList(from, to), uploads, results);
+        }
+
+        List<BatchItemResult> items = new ArrayList<>(List.of(results));
+        items.addAll(rejected);
+        long durationMillis = System.currentTimeMillis() - started;
+        BatchManifest manifest = new BatchManifest(items.size(),
+                count(items, Status.CREATED), count(items, Status.DUPLICATE), count(items, Status.FAILED),
+                durationMillis, items);
+        log.info("Toplu emal bitdi: {} fayl, {} yeni, {} dublikat, {} uğursuz, {} ms", manifest.getTotalFiles(),
+                manifest.getCreated(), manifest.getDuplicates(), manifest.getFailed(), durationMillis);
+        return manifest;
+    }
+
+    private void storeChunk(List<PreparedPdf> chunk, List<Integer> indexes,
+                            List<SpooledUpload> uploads, BatchItemResult[] results) {
+        List<PdfEntity> saved;
+        Timer.Sample saveSample = pipelineMetrics.start();
+        try {
+            saved = pdfRepository.saveAll(chunk.stream().map(PreparedPdf::getEntity).toList());
+            pipelineMetrics.stop(saveSample, Stage.DB_SAVE);
+        } catch (DataIntegrityViolationException e) {
+            // Paralel sorğu eyni faylı yazıb: bu hissə tək-tək, dublikat yoxlaması ilə yazılır
+            log.warn("Toplu yazma uğursuz oldu, fayllar tək-tək yazılır: {}", e.getMessage());
+            for (int k = 0; k < chunk.size(); k++) {
+                SpooledUpload upload = uploads.get(indexes.get(k));
+                resetGeneratedIds(chunk.get(k).getEntity()); // Geri qaytarılmış tranzaksiyada verilmiş id-lər
+                try {
+                    PdfEntity entity = pdfProcessorService.storePrepared(chunk.get(k));
+                    results[indexes.get(k)] = entity == chunk.get(k).getEntity()
+                            ? created(upload, entity)
+                            : duplicate(upload, entity.getId());
+                } catch (IOException ex) {
+                    results[indexes.get(k)] = failed(upload, ex);
+                }
+            }
+            return;
+        } catch (RuntimeException e) {
+            log.error("Toplu yazma uğursuz oldu: {}", e.getMessage());
+            for (int k = 0; k < chunk.size(); k++) {
+                pdfProcessorService.discardPrepared(chunk.get(k));
+                results[indexes.get(k)] = failed(uploads.get(indexes.get(k)), e);
+            }
+            return;
+        }
+
+        for (int k = 0; k < saved.size(); k++) {
+            PdfEntity entity = saved.get(k);
+            pageCheckpointStore.delete(entity.getFileHash());
+            results[indexes.get(k)] = created(uploads.get(indexes.get(k)), entity);
+        }
+    }
+
+    private static void resetGeneratedIds(PdfEntity entity) {
+        entity.setId(null);
+        entity.getTransactionRows().forEach(row -> row.setId(null));
+        entity.getAiOutboxEntries().forEach(entry -> entry.setId(null));
+    }
+
+    private PreparedPdf awaitPrepared(Future<PreparedPdf> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static BatchItemResult created(SpooledUpload upload, PdfEntity entity) {
+        return BatchItemResult.builder().fileName(upload.getOriginalFilename()).status(Status.CREATED)
+                .pdfId(entity.getId()).fileHash(upload.getSha256())
+                .rowCount(entity.getTransactionRows().size()).build();
+    }
+
+    private static BatchItemResult duplicate(SpooledUpload upload, Long existingId) {
+        return BatchItemResult.builder().fileName(upload.getOriginalFilename()).status(Status.DUPLICATE)
+                .pdfId(existingId).fileHash(upload.getSha256()).build();
+    }
+
+    private static BatchItemResult failed(SpooledUpload upload, Exception e) {
+        return BatchItemResult.builder().fileName(upload.getOriginalFilename()).status(Status.FAILED)
+                .fileHash(upload.getSha256()).error(e.getMessage()).build();
+    }
+
+    private static BatchItemResult failed(String fileName, String error) {
+        return BatchItemResult.builder().fileName(fileName).status(Status.FAILED).error(error).build();
+    }
+
+    private static int count(List<BatchItemResult> items, Status status) {
+        return (int) items.stream().filter(item -> item.getStatus() == status).count();
+    }
+
+    // ZIP bombasına qarşı: bir qeyd maxBytes-dan böyükdürsə oxuma dayandırılır
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private final String name;
+        private long read;
+
+        LimitedInputStream(InputStream in, long maxBytes, String name) {
+            super(in);
+            this.maxBytes = maxBytes;
+            this.name = name;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (read > maxBytes) {
+                throw new IOException("Arxivdəki fayl çox böyükdür: " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.dto.PdfJobStatus;
+import com.example.pdfprocessorservice.dto.PdfJobStatus.State;
+import com.example.pdfprocessorservice.entity.PdfEntity;
+import com.example.pdfprocessorservice.util.SpooledUpload;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// PDF emalını fon işinə çevirir: sorğu thread-i dərhal qayıdır, emal məhdud worker hovuzunda gedir.
+// İşlər yaddaşda saxlanılır və bitdikdən retentionMinutes sonra silinir.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PdfJobService {
+
+    private final PdfProcessorService pdfProcessorService;
+    @Qualifier("pdfJobExecutor")
+    private final ThreadPoolTaskExecutor pdfJobExecutor;
+
+    @Value("${pdf.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${pdf.jobs.sse-timeout-ms:1800000}")
+    private long sseTimeoutMillis;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    // Fayl artıq diskə yazılmış olmalıdır; iş bitdikdə müvəqqəti fayl silinir.
+    // Hovuz və növbə doludursa TaskRejectedException atılır.
+    public PdfJobStatus submit(SpooledUpload upload) {
+        Job job = new Job(UUID.randomUUID().toString(), upload.getOriginalFilename());
+        jobs.put(job.id, job);
+        try {
+            pdfJobExecutor.execute(() -> run(job, upload));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            upload.close();
+            throw e;
+        }
+        log.info("PDF işi növbəyə əlavə olundu: {} ({})", job.id, job.fileName);
+        return job.snapshot();
+    }
+
+    public Optional<PdfJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::snapshot);
+    }
+
+    // İşin gedişatını Server-Sent Events ilə ötürür: "progress", sonra "completed" və ya "failed"
+    public Optional<SseEmitter> subscribe(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(ex -> job.emitters.remove(emitter));
+        job.emitters.add(emitter);
+        // Abunə olan kimi cari vəziyyət göndərilir; iş artıq bitibsə axın da bağlanır
+        job.send(emitter, job.snapshot());
+        return Optional.of(emitter);
+    }
+
+    private void run(Job job, SpooledUpload upload) {
+        job.update(State.RUNNING, null, null);
+        try (upload) {
+            PdfEntity result = pdfProcessorService.processUpload(upload, (completedPages, totalPages) -> {
+                job.completedPages = completedPages;
+                job.totalPages = totalPages;
+                job.update(State.RUNNING, null, null);
+            });
+            job.update(State.COMPLETED, result, null);
+            log.info("PDF işi tamamlandı: {}", job.id);
+        } catch (IOException | RuntimeException e) {
+            log.error("PDF işi uğursuz oldu {}: {}", job.id, e.getMessage());
+            job.update(State.FAILED, null, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pdf.jobs.cleanup-interval-ms:60000}")
+    public void evictFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.updatedAt.isBefore(threshold));
+    }
+
+    private static class Job {
+        private final String id;
+        private final String fileName;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private volatile State state = State.QUEUED;
+        private volatile int completedPages;
+        private volatile int totalPages;
+        private volatile PdfEntity result;
+        private volatile String error;
+        private volatile LocalDateTime updatedAt = submittedAt;
+
+        Job(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        boolean isFinished() {
+            return state == State.COMPLETED || state == State.FAILED;
+        }
+
+        synchronized void update(State newState, PdfEntity newResult, String newError) {
+            state = newState;
+            result = newResult;
+            error = newError;
+            updatedAt = LocalDateTime.now();
+            PdfJobStatus status = snapshot();
+            emitters.forEach(emitter -> send(emitter, status));
+        }
+
+        void send(SseEmitter emitter, PdfJobStatus status) {
+            String eventName = switch (status.getState()) {
+                case COMPLETED -> "completed";
+                case FAILED -> "failed";
+                default -> "progress";
+            };
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(status));
+                if (status.getState() == State.COMPLETED || status.getState() == State.FAILED) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+
+        PdfJobStatus snapshot() {
+            return PdfJobStatus.builder()
+                    .jobId(id)
+                    .fileName(fileName)
+                    .state(state)
+                    .completedPages(completedPages)
+                    .totalPages(totalPages)
+                    .result(result)
+                    .error(error)
+                    .submittedAt(submittedAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+}
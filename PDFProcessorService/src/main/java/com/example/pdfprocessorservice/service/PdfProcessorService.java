@@ -1,34 +1,70 @@
 package com.example.pdfprocessorservice.service;
 
-import com.example.pdfprocessorservice.client.AIClient;
-import com.example.pdfprocessorservice.dto.AIAnalysisRequest;
-import com.example.pdfprocessorservice.dto.AIAnalysisResponse;
+import com.example.pdfprocessorservice.entity.ExtractionStrategy;
+import com.example.pdfprocessorservice.dto.PdfPageResponse;
+import com.example.pdfprocessorservice.dto.PdfSummary;
+import com.example.pdfprocessorservice.dto.TransactionRowDto;
+import com.example.pdfprocessorservice.entity.AiOutboxEntry;
 import com.example.pdfprocessorservice.entity.PdfEntity;
+import com.example.pdfprocessorservice.entity.TransactionRow;
 import com.example.pdfprocessorservice.repository.PdfRepository;
+import com.example.pdfprocessorservice.repository.TransactionRowRepository;
+import com.example.pdfprocessorservice.service.PipelineMetrics.Outcome;
+import com.example.pdfprocessorservice.service.PipelineMetrics.Stage;
+import com.example.pdfprocessorservice.util.ExtractedTable;
+import com.example.pdfprocessorservice.util.ExtractionResult;
 import com.example.pdfprocessorservice.util.ImageProcessor;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.example.pdfprocessorservice.util.LineClassifier;
+import com.example.pdfprocessorservice.util.LineFeatures;
+import com.example.pdfprocessorservice.util.PageProbe;
+import com.example.pdfprocessorservice.util.PreparedPdf;
+import com.example.pdfprocessorservice.util.ProgressListener;
+import com.example.pdfprocessorservice.util.RawRow;
+import com.example.pdfprocessorservice.util.SpooledUpload;
+import com.example.pdfprocessorservice.util.StatementTemplate;
+import com.example.pdfprocessorservice.util.TableStitcher;
+import com.example.pdfprocessorservice.util.TesseractPools;
+import com.example.pdfprocessorservice.util.TransactionRowParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.TesseractException;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,166 +73,446 @@ public class PdfProcessorService {
 
     private final MinioService minIOService;
     private final PdfRepository pdfRepository;
-    private final AIClient aiServiceClient;
-    private final Tesseract tesseract;
+    private final TransactionRowRepository transactionRowRepository;
+    private final TesseractPools tesseractPools;
+    private final OcrLanguageSelector ocrLanguageSelector;
+    private final StripPageOcr stripPageOcr;
     private final ImageProcessor imageProcessor;
+    private final UploadSpooler uploadSpooler;
+    private final PageStrategySelector pageStrategySelector;
+    private final TableRegionDetector tableRegionDetector;
+    private final PageTriage pageTriage;
+    private final StatementTemplateRegistry statementTemplateRegistry;
+    private final OcrResultCache ocrResultCache;
+    private final PageCheckpointStore pageCheckpointStore;
+    private final PipelineMetrics pipelineMetrics;
+    private final ObjectMapper objectMapper;
+    @Qualifier("ocrTaskExecutor")
+    private final ThreadPoolTaskExecutor ocrTaskExecutor;
+    @Qualifier("minioUploadExecutor")
+    private final AsyncTaskExecutor minioUploadExecutor;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Value("${tesseracts.page-parallelism:4}")
+    private int pageParallelism;
+
+    @Value("${pdf.ingest.max-main-memory-bytes:8388608}")
+    private long maxMainMemoryBytes;
+
+    @Value("${pdf.ocr.strips.enabled:false}")
+    private boolean stripRendering;
 
     public PdfEntity processPdf(MultipartFile file) throws IOException {
         log.info("PDF işlənir: {}", file.getOriginalFilename());
-        try (InputStream inputStream = file.getInputStream();
-             PDDocument document = Loader.loadPDF(inputStream.readAllBytes())) {
+        // Fayl bir dəfə diskə yazılır, SHA-256 da bu zaman hesablanır
+        try (SpooledUpload upload = uploadSpooler.spool(file)) {
+            return processUpload(upload, ProgressListener.NONE);
+        } catch (IOException e) {
+            log.error("PDF işlənməsi uğursuz oldu {}: {}", file.getOriginalFilename(), e.getMessage());
+            throw e;
+        }
+    }
+
+    // Diskə yazılmış faylı emal edir; asinxron işlər də bu metoddan istifadə edir
+    public PdfEntity processUpload(SpooledUpload upload, ProgressListener progressListener) throws IOException {
+        PreparedPdf prepared = preparePdf(upload, progressListener);
+        if (prepared.isDuplicate()) {
+            return prepared.getExisting();
+        }
+        return storePrepared(prepared);
+    }
+
+    // Render, OCR və sətir təhlili; bazaya yazmır. Dublikat fayl/mətn üçün mövcud PdfEntity qaytarılır.
+    // Uğurlu nəticədə fayl artıq MinIO-dadır; yazılmayacaqsa discardPrepared çağırılmalıdır.
+    public PreparedPdf preparePdf(SpooledUpload upload, ProgressListener progressListener) throws IOException {
+        Timer.Sample documentSample = pipelineMetrics.documentStarted();
+        PreparedPdf result = null;
+        try {
+            result = prepare(upload, progressListener);
+            return result;
+        } finally {
+            pipelineMetrics.documentFinished(documentSample, result == null ? Outcome.FAILED
+                    : result.isDuplicate() ? Outcome.DUPLICATE : Outcome.PREPARED);
+        }
+    }
+
+    private PreparedPdf prepare(SpooledUpload upload, ProgressListener progressListener) throws IOException {
+        String fileName = upload.getOriginalFilename();
+
+        // Eyni fayl artıq emal olunubsa, render və OCR-a ehtiyac yoxdur
+        Timer.Sample dedupeSample = pipelineMetrics.start();
+        Optional<PdfEntity> existingByFileHash = pdfRepository.findByFileHash(upload.getSha256());
+        pipelineMetrics.stop(dedupeSample, Stage.DEDUPE);
+        if (existingByFileHash.isPresent()) {
+            log.info("Eyni fayl artıq mövcuddur: {} (fayl hash: {})", existingByFileHash.get().getFileName(), upload.getSha256());
+            pipelineMetrics.duplicateByFileHash();
+            return PreparedPdf.duplicateOf(existingByFileHash.get());
+        }
+
+        // MinIO yükləməsi baytlar diskdə olan kimi başlayır və render/OCR ilə paralel gedir
+        CompletableFuture<String> minioUpload = startMinIOUpload(upload);
+        boolean prepared = false;
+
+        // PDFBox faylı RandomAccessReadBufferedFile ilə diskdən oxuyur,
+        // daxili axınlar üçün isə heap yalnız maxMainMemoryBytes qədər istifadə olunur
+        Timer.Sample loadSample = pipelineMetrics.start();
+        try (PDDocument document = Loader.loadPDF(upload.getPath().toFile(),
+                MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache)) {
+            pipelineMetrics.stop(loadSample, Stage.LOAD);
 
             if (document.getNumberOfPages() == 0) {
-                log.warn("Yanlış PDF: {} faylında səhifə tapılmadı", file.getOriginalFilename());
+                log.warn("Yanlış PDF: {} faylında səhifə tapılmadı", fileName);
                 throw new IOException("Yanlış PDF: Səhifə tapılmadı");
             }
 
-            String extractedText;
-            try {
-                extractedText = extractTablesWithTesseract(document);
-            } catch (Exception e) {
-                log.error("Tesseract ilə cədvəl çıxarılmasında xəta: {}", e.getMessage());
-                extractedText = "";
-            }
-
-            if (!isTableContent(extractedText)) {
-                log.warn("Tesseract düzgün cədvəl məzmunu çıxara bilmədi, PDFBox-a keçilir: {}", file.getOriginalFilename());
-                try {
-                    extractedText = extractTablesWithPDFBox(document);
-                } catch (Exception e) {
-                    log.error("PDFBox ilə cədvəl çıxarılmasında xəta: {}", e.getMessage());
-                    extractedText = "";
-                }
-                if (!isTableContent(extractedText)) {
-                    log.warn("PDFBox da düzgün cədvəl məzmunu çıxara bilmədi: {}", file.getOriginalFilename());
-                }
-            }
+            ExtractionResult extraction = extractText(document, fileName, upload.getSha256(), progressListener);
+            pipelineMetrics.pagesProcessed(extraction.getPageStrategies());
+            String extractedText = extraction.getText();
 
             if (extractedText.trim().isEmpty()) {
-                log.warn("PDF-dən mətn çıxarılmadı: {}", file.getOriginalFilename());
+                log.warn("PDF-dən mətn çıxarılmadı: {}", fileName);
                 throw new IOException("PDF-dən mətn çıxarılmadı");
             }
 
             // SHA-256 hash-i hesablay
             String hash = calculateSha256(extractedText);
 
-            // Eyni mətnə və ya hash-ə malik PDF-in olub-olmadığını yoxla
-            Optional<PdfEntity> existingByText = pdfRepository.findByExtractedText(extractedText);
-            if (existingByText.isPresent()) {
-                log.info("Eyni çıxarılmış mətnə malik PDF artıq mövcuddur: {}", existingByText.get().getFileName());
-                return existingByText.get();
-            }
-
+            // Eyni mətnə malik PDF-in olub-olmadığını hash indeksi ilə yoxla
+            dedupeSample = pipelineMetrics.start();
             Optional<PdfEntity> existingByHash = pdfRepository.findByHash(hash);
             if (existingByHash.isPresent()) {
+                pipelineMetrics.stop(dedupeSample, Stage.DEDUPE);
                 log.info("Eyni hash-ə malik PDF artıq mövcuddur: {}", existingByHash.get().getFileName());
-                return existingByHash.get();
+                pipelineMetrics.duplicateByTextHash();
+                pageCheckpointStore.delete(upload.getSha256());
+                return PreparedPdf.duplicateOf(existingByHash.get());
             }
 
             // Eyni fayl adına malik PDF-ləri yoxla
-            List<PdfEntity> existingByFileName = pdfRepository.findByFileName(file.getOriginalFilename());
+            List<PdfEntity> existingByFileName = pdfRepository.findByFileName(fileName);
+            pipelineMetrics.stop(dedupeSample, Stage.DEDUPE);
             if (!existingByFileName.isEmpty()) {
-                log.warn("Eyni fayl adına malik PDF artıq mövcuddur: {}", file.getOriginalFilename());
+                log.warn("Eyni fayl adına malik PDF artıq mövcuddur: {}", fileName);
             }
 
-            // MinIO-ya yüklə
-            String filePath;
-            try {
-                filePath = saveToMinIO(file);
-            } catch (Exception e) {
-                log.error("MinIO-ya yükləmə xətası: {}", e.getMessage());
-                throw new IOException("MinIO-ya fayl yüklənmədi", e);
-            }
+            // MinIO yükləməsinin bitməsini gözlə
+            Timer.Sample minioSample = pipelineMetrics.start();
+            String filePath = awaitMinIOUpload(minioUpload);
+            pipelineMetrics.stop(minioSample, Stage.MINIO_WAIT);
 
-            // PdfEntity yarat və saxla
+            // PdfEntity yarat
             PdfEntity pdfEntity = PdfEntity.builder()
-                    .fileName(file.getOriginalFilename())
+                    .fileName(fileName)
                     .uploadDate(LocalDateTime.now())
                     .extractedText(extractedText)
                     .minioPath(filePath)
                     .hash(hash)
+                    .fileHash(upload.getSha256())
+                    .pageStrategies(extraction.getPageStrategies().stream()
+                            .map(Enum::name)
+                            .collect(Collectors.joining(",")))
                     .build();
 
-            PdfEntity savedEntity;
-            try {
-                savedEntity = pdfRepository.save(pdfEntity);
-            } catch (Exception e) {
-                log.error("PDF bazaya yazılarkən xəta: {}", e.getMessage());
-                throw new IOException("PDF bazaya yazıla bilmədi", e);
+            // Tipli əməliyyat sətirləri PdfEntity ilə birlikdə (cascade) yazılır
+            Timer.Sample parseSample = pipelineMetrics.start();
+            List<TransactionRow> transactionRows = TransactionRowParser.parse(
+                    extraction.getTable().getRows(), extraction.getTable().getColumns());
+            pipelineMetrics.stop(parseSample, Stage.ROW_PARSE);
+            transactionRows.forEach(row -> row.setPdf(pdfEntity));
+            pdfEntity.setTransactionRows(transactionRows);
+
+            // AI təhlili sorğusu da eyni tranzaksiyada yazılır, AiOutboxDispatcher göndərir
+            pdfEntity.getAiOutboxEntries().add(AiOutboxEntry.pending(pdfEntity));
+
+            prepared = true;
+            return PreparedPdf.of(pdfEntity);
+        } finally {
+            if (!prepared) {
+                discardMinIOUpload(minioUpload);
+            }
+        }
+    }
+
+    // Hazırlanmış PdfEntity-ni AI outbox qeydi ilə birlikdə bir tranzaksiyada yazır
+    public PdfEntity storePrepared(PreparedPdf prepared) throws IOException {
+        PdfEntity pdfEntity = prepared.getEntity();
+        PdfEntity savedEntity;
+        Timer.Sample saveSample = pipelineMetrics.start();
+        try {
+            savedEntity = pdfRepository.save(pdfEntity);
+            pipelineMetrics.stop(saveSample, Stage.DB_SAVE);
+            pageCheckpointStore.delete(pdfEntity.getFileHash());
+        } catch (DataIntegrityViolationException e) {
+            discardPrepared(prepared);
+            // Eyni fayl və ya mətn paralel sorğu ilə artıq yazılıb
+            Optional<PdfEntity> concurrent = pdfRepository.findByFileHash(pdfEntity.getFileHash())
+                    .or(() -> pdfRepository.findByHash(pdfEntity.getHash()));
+            if (concurrent.isPresent()) {
+                log.info("Eyni fayl paralel olaraq artıq yazılıb: {}", pdfEntity.getFileName());
+                return concurrent.get();
             }
+            log.error("PDF bazaya yazılarkən xəta: {}", e.getMessage());
+            throw new IOException("PDF bazaya yazıla bilmədi", e);
+        } catch (Exception e) {
+            discardPrepared(prepared);
+            log.error("PDF bazaya yazılarkən xəta: {}", e.getMessage());
+            throw new IOException("PDF bazaya yazıla bilmədi", e);
+        }
 
-            // AI Service-ə asinxron sorğu göndər
-            analyzeTextAsync(savedEntity.getId(), extractedText, hash);
+        return savedEntity;
+    }
 
-            return savedEntity;
-        } catch (IOException e) {
-            log.error("PDF işlənməsi uğursuz oldu {}: {}", file.getOriginalFilename(), e.getMessage());
-            throw e;
+    // Yazılmayacaq hazırlanmış PDF-in MinIO obyektini silir
+    public void discardPrepared(PreparedPdf prepared) {
+        if (!prepared.isDuplicate()) {
+            discardMinIOUpload(CompletableFuture.completedFuture(prepared.getEntity().getMinioPath()));
+        }
+    }
+
+    private CompletableFuture<String> startMinIOUpload(SpooledUpload upload) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return saveToMinIO(upload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, minioUploadExecutor);
+    }
+
+    private String awaitMinIOUpload(CompletableFuture<String> minioUpload) throws IOException {
+        try {
+            return minioUpload.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+            log.error("MinIO-ya yükləmə xətası: {}", cause != null ? cause.getMessage() : e.getMessage());
+            throw new IOException("MinIO-ya fayl yüklənmədi", cause != null ? cause : e);
         }
     }
 
+    // Emal alınmadısa (xəta, dublikat) artıq yüklənmiş obyekt MinIO-da yetim qalmasın
+    private void discardMinIOUpload(CompletableFuture<String> minioUpload) {
+        minioUpload.whenComplete((objectName, ex) -> {
+            if (objectName == null) {
+                return;
+            }
+            try {
+                minIOService.removeFile(objectName);
+                log.info("İstifadə olunmayan MinIO obyekti silindi: {}", objectName);
+            } catch (IOException e) {
+                log.warn("Yetim MinIO obyekti silinmədi {}: {}", objectName, e.getMessage());
+            }
+        });
+    }
+
     private String calculateSha256(String text) {
         return DigestUtils.sha256Hex(text);
     }
 
-    private String extractTablesWithTesseract(PDDocument document) throws IOException {
-        StringBuilder tableContent = new StringBuilder();
-        PDFRenderer pdfRenderer = new PDFRenderer(document);
-        boolean tableStarted = false;
-        StringBuilder currentRow = new StringBuilder();
+    // Əvvəlcə mətn qatı yoxlanılır; OCR yalnız buna ehtiyacı olan səhifələrdə işləyir
+    private ExtractionResult extractText(PDDocument document, String fileName, String fileHash,
+                                         ProgressListener progressListener) throws IOException {
+        Timer.Sample probeSample = pipelineMetrics.start();
+        List<PageProbe> probes = pageStrategySelector.probe(document);
+        pipelineMetrics.stop(probeSample, Stage.PROBE);
+        List<ExtractionStrategy> strategies = probes.stream()
+                .map(PageProbe::getStrategy)
+                .collect(Collectors.toCollection(ArrayList::new));
+        List<String> textLayerPages = probes.stream().map(PageProbe::getText).toList();
+
+        ExtractedTable table;
+        if (!strategies.contains(ExtractionStrategy.OCR)) {
+            try {
+                table = extractTablesWithPDFBox(textLayerPages);
+            } catch (Exception e) {
+                log.error("PDFBox ilə cədvəl çıxarılmasında xəta: {}", e.getMessage());
+                table = ExtractedTable.EMPTY;
+            }
+            if (isTableContent(table.getText())) {
+                progressListener.onPagesCompleted(strategies.size(), strategies.size());
+                return new ExtractionResult(table, strategies);
+            }
+            log.warn("Mətn qatından cədvəl çıxarılmadı, bütün səhifələr OCR ilə emal olunur: {}", fileName);
+            strategies.replaceAll(strategy -> ExtractionStrategy.OCR);
+        }
+
+        Timer.Sample triageSample = pipelineMetrics.start();
+        pageTriage.triage(document, probes, strategies);
+        pipelineMetrics.stop(triageSample, Stage.TRIAGE);
+        try {
+            table = extractTablesWithTesseract(document, fileHash, textLayerPages, strategies, progressListener);
+        } catch (Exception e) {
+            log.error("Tesseract ilə cədvəl çıxarılmasında xəta: {}", e.getMessage());
+            table = ExtractedTable.EMPTY;
+        }
 
-        for (int page = 0; page < document.getNumberOfPages(); page++) {
+        if (!isTableContent(table.getText())) {
+            log.warn("Tesseract düzgün cədvəl məzmunu çıxara bilmədi, PDFBox-a keçilir: {}", fileName);
+            pipelineMetrics.pdfBoxFallback();
             try {
-                BufferedImage image = pdfRenderer.renderImageWithDPI(page, 300, ImageType.RGB);
-                if (image == null) {
-                    log.warn("{} səhifəsi üçün şəkil yaradıla bilmədi", page);
-                    continue;
-                }
-                BufferedImage enhancedImage = imageProcessor.enhanceImage(image);
-                String text = extractWithTesseract(enhancedImage);
-                log.info("Tesseract xam çıxışı {} səhifəsi üçün: {}", page, text);
-                String[] lines = text.split("\n");
+                table = extractTablesWithPDFBox(textLayerPages);
+            } catch (Exception e) {
+                log.error("PDFBox ilə cədvəl çıxarılmasında xəta: {}", e.getMessage());
+                table = ExtractedTable.EMPTY;
+            }
+            if (!isTableContent(table.getText())) {
+                log.warn("PDFBox da düzgün cədvəl məzmunu çıxara bilmədi: {}", fileName);
+            }
+        }
+        return new ExtractionResult(table, strategies);
+    }
 
-                for (int i = 0; i < lines.length; i++) {
-                    String line = lines[i].trim();
+    // Bu metod, isTableContent və extractTablesWithPDFBox paket daxilidir: PdfExtractionBenchmark (src/jmh) onları birbaşa ölçür
+    // fileHash null olduqda səhifə checkpoint-ləri istifadə olunmur
+    ExtractedTable extractTablesWithTesseract(PDDocument document, String fileHash, List<String> textLayerPages,
+                                                      List<ExtractionStrategy> strategies,
+                                                      ProgressListener progressListener) throws IOException {
+        TableStitcher stitcher = new TableStitcher(statementTemplateRegistry.getTemplates());
+        collectPageTexts(document, fileHash, textLayerPages, strategies, progressListener, stitcher);
+        ExtractedTable table = new ExtractedTable(stitcher.finish(),
+                stitcher.getTemplate().map(StatementTemplate::getColumns).orElse(List.of()));
+        log.debug("Tesseract son çıxarılmış cədvəl ({}): {}",
+                stitcher.getTemplate().map(StatementTemplate::getId).orElse("şablon tapılmadı"), table.getText());
+        return table;
+    }
 
-                    // Cədvəlin başlanğıcını tap
-                    if (line.contains("Tarix Təyinat Məbləğ Komissiya ƏDV Balans")) {
-                        tableStarted = true;
-                        continue;
-                    }
+    // OCR tələb edən səhifələri paralel render edib OCR edir, nəticələri səhifə sırası ilə stitcher-ə verir.
+    // Eyni anda ən çox pageParallelism səhifə emal olunur ki, yaddaşda çoxlu 300-DPI şəkil yığılmasın.
+    // Cədvəlin sonu tapılan kimi qalan səhifələr render edilmir və SKIPPED işarələnir.
+    // OCR dil dəsti mətn qatından seçilir; mətn qatı yoxdursa ilk OCR səhifəsi tam dəstlə OCR olunur,
+    // qalan səhifələr isə onun nəticəsinə görə seçilmiş (adətən daha kiçik) dəstlə.
+    // Hər OCR səhifəsi bitən kimi checkpoint-ə yazılır; eyni faylın təkrar cəhdində o səhifələr OCR olunmur.
+    private void collectPageTexts(PDDocument document, String fileHash, List<String> textLayerPages,
+                                  List<ExtractionStrategy> strategies,
+                                  ProgressListener progressListener, TableStitcher stitcher) throws IOException {
+        PDFRenderer pdfRenderer = new PDFRenderer(document);
+        int pageCount = document.getNumberOfPages();
+        Deque<Future<String>> inFlight = new ArrayDeque<>();
+        int nextPage = 0;
+        int completedPages = 0;
+        String languages = ocrLanguageSelector.fromTextLayer(textLayerPages).orElse(null);
+        int samplePage = -1;
+        Map<Integer, String> checkpoints = pageCheckpointStore.load(fileHash);
 
-                    // Cədvəl başladıqdan sonra sətirləri birləşdir
-                    if (tableStarted) {
-                        if (line.matches("\\d{2}-\\d{2}-\\d{4}")) { // Tarix sətri
-                            if (currentRow.length() > 0) {
-                                tableContent.append(currentRow.toString()).append("\n");
-                                currentRow.setLength(0); // Yeni sətrə keç
-                            }
-                            currentRow.append(line);
-                        } else if (currentRow.length() > 0 && !line.isEmpty()) { // Tarixdən sonrakı sətirlər
-                            currentRow.append(" ").append(line);
+        try {
+            while (completedPages < pageCount) {
+                while (nextPage < pageCount && inFlight.size() < Math.max(1, pageParallelism)) {
+                    if (languages == null && samplePage >= 0) {
+                        break; // Nümunə səhifənin nəticəsi gözlənilir
+                    }
+                    int page = nextPage++;
+                    if (strategies.get(page) == ExtractionStrategy.TEXT_LAYER) {
+                        inFlight.add(CompletableFuture.completedFuture(textLayerPages.get(page)));
+                    } else if (strategies.get(page) == ExtractionStrategy.SKIPPED) {
+                        inFlight.add(CompletableFuture.completedFuture(""));
+                    } else if (checkpoints.containsKey(page)) {
+                        if (languages == null) {
+                            samplePage = page;
                         }
-
-                        // Cədvəlin sonunu tap
-                        if (line.contains("180.95")) {
-                            tableContent.append(currentRow.toString()).append("\n");
-                            tableStarted = false;
-                            break;
+                        inFlight.add(CompletableFuture.completedFuture(checkpoints.get(page)));
+                    } else {
+                        String pageLanguages = languages != null ? languages : ocrLanguageSelector.getDefaultLanguages();
+                        if (languages == null) {
+                            samplePage = page;
                         }
+                        PDPage pdPage = document.getPage(page);
+                        inFlight.add(ocrTaskExecutor.submit(() -> {
+                            String text = ocrPage(document, pdfRenderer, pdPage, page, pageLanguages);
+                            pageCheckpointStore.save(fileHash, page, pageLanguages, text);
+                            return text;
+                        }));
                     }
                 }
-            } catch (TesseractException e) {
-                log.error("Tesseract OCR {} səhifəsi üçün uğursuz oldu: {}", page, e.getMessage());
+                String pageText = awaitPage(inFlight.poll());
+                if (languages == null && completedPages == samplePage) {
+                    languages = ocrLanguageSelector.fromOcrSample(pageText);
+                    log.info("OCR dil dəsti {} səhifəsinə görə seçildi: {}", samplePage, languages);
+                }
+                boolean tableEnded = stitcher.accept(pageText,
+                        strategies.get(completedPages) == ExtractionStrategy.TEXT_LAYER);
+                completedPages++;
+                if (tableEnded && completedPages < pageCount) {
+                    log.info("Cədvəl {} səhifəsində bitdi, qalan {} səhifə emal olunmur",
+                            completedPages - 1, pageCount - completedPages);
+                    for (int page = completedPages; page < pageCount; page++) {
+                        strategies.set(page, ExtractionStrategy.SKIPPED);
+                    }
+                    completedPages = pageCount;
+                }
+                progressListener.onPagesCompleted(completedPages, pageCount);
             }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
         }
+    }
 
-        String result = tableContent.toString().trim();
-        log.info("Tesseract son çıxarılmış cədvəl: {}", result);
-        return result.isEmpty() ? "" : result;
+    private String ocrPage(PDDocument document, PDFRenderer pdfRenderer, PDPage pdPage, int page, String languages)
+            throws IOException {
+        // Zolaq rejimində 300 DPI tam səhifə raster-i yaradılmır (skan səhifənin öz şəkli istisna, bax StripPageOcr)
+        if (stripRendering) {
+            return stripPageOcr.ocr(document, pdfRenderer, pdPage, page, languages);
+        }
+        BufferedImage image;
+        // PDDocument thread-safe deyil, ona görə render ardıcıl, binarizasiya və OCR isə paralel gedir
+        synchronized (pdfRenderer) {
+            Timer.Sample renderSample = pipelineMetrics.start();
+            image = pdfRenderer.renderImageWithDPI(page, 300, ImageType.GRAY);
+            pipelineMetrics.stop(renderSample, Stage.RENDER);
+        }
+        if (image == null) {
+            log.warn("{} səhifəsi üçün şəkil yaradıla bilmədi", page);
+            return "";
+        }
+        try {
+            Timer.Sample binarizeSample = pipelineMetrics.start();
+            BufferedImage enhancedImage = imageProcessor.enhanceImage(image);
+            pipelineMetrics.stop(binarizeSample, Stage.BINARIZE);
+            // Yalnız cədvəl bölgəsi OCR olunur; tapılmadıqda bütün səhifə
+            Timer.Sample detectSample = pipelineMetrics.start();
+            Rectangle tableRegion = tableRegionDetector.detect(enhancedImage, 300).orElse(null);
+            pipelineMetrics.stop(detectSample, Stage.TABLE_DETECT);
+
+            // Eyni səhifə (eyni binar şəkil və bölgə) artıq OCR olunubsa Tesseract çağırılmır
+            String cacheKey = ocrResultCache.isEnabled() ? ocrResultCache.fingerprint(enhancedImage, tableRegion, languages) : null;
+            if (cacheKey != null) {
+                Optional<String> cached = ocrResultCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    log.info("{} səhifəsi üçün OCR nəticəsi keşdən götürüldü", page);
+                    return cached.get();
+                }
+            }
+            Timer.Sample ocrSample = pipelineMetrics.start();
+            String text = extractWithTesseract(enhancedImage, tableRegion, languages);
+            pipelineMetrics.stop(ocrSample, Stage.OCR);
+            if (cacheKey != null) {
+                ocrResultCache.put(cacheKey, text);
+            }
+            log.debug("Tesseract xam çıxışı {} səhifəsi üçün: {}", page, text);
+            return text;
+        } catch (TesseractException e) {
+            log.error("Tesseract OCR {} səhifəsi üçün uğursuz oldu: {}", page, e.getMessage());
+            return "";
+        }
     }
 
-    private boolean isTableContent(String content) {
+    private String awaitPage(Future<String> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Səhifə OCR-ı gözlənilərkən kəsildi", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Səhifə OCR-ı uğursuz oldu", e.getCause());
+        }
+    }
+
+    boolean isTableContent(String content) {
         if (content == null || content.trim().isEmpty()) {
             return false;
         }
@@ -208,8 +524,7 @@ public class PdfProcessorService {
 
         int tableLikeLines = 0;
         for (String line : lines) {
-            if (line.matches(".*\\d{2}[.-]\\d{2}[.-]\\d{4}.*") && // Tarix formatı
-                    line.matches(".*[-+]?\\d+\\.\\d{2}.*")) {         // Rəqəm formatı
+            if (LineClassifier.classify(line).isTransactionLike()) { // Tarix və rəqəm formatı
                 tableLikeLines++;
             }
         }
@@ -218,24 +533,31 @@ public class PdfProcessorService {
     }
 
     public String extractWithTesseract(BufferedImage tableImage) throws TesseractException {
+        return extractWithTesseract(tableImage, null, ocrLanguageSelector.getDefaultLanguages());
+    }
+
+    public String extractWithTesseract(BufferedImage tableImage, Rectangle region, String languages) throws TesseractException {
         if (tableImage == null) {
             log.error("Tesseract null şəkil aldı");
             return "";
         }
         try {
-            return tesseract.doOCR(tableImage);
+            return tesseractPools.get(languages).doOCR(tableImage, region);
         } catch (TesseractException e) {
             log.error("Tesseract OCR uğursuz oldu: {}", e.getMessage());
             throw e;
         }
     }
 
-    public String saveToMinIO(MultipartFile file) throws IOException {
+    public String saveToMinIO(SpooledUpload upload) throws IOException {
+        Timer.Sample uploadSample = pipelineMetrics.start();
         try {
-            return minIOService.uploadFile(file);
+            return minIOService.uploadFile(upload);
         } catch (IOException e) {
             log.error("MinIO-ya fayl yükləmə uğursuz oldu: {}", e.getMessage());
             throw e;
+        } finally {
+            pipelineMetrics.stop(uploadSample, Stage.MINIO_UPLOAD);
         }
     }
 
@@ -248,36 +570,55 @@ public class PdfProcessorService {
         }
     }
 
-    public byte[] downloadFromMinIO(String minioPath) throws IOException {
+    public boolean pdfExists(Long id) {
+        return pdfRepository.existsById(id);
+    }
+
+    public List<TransactionRowDto> getTransactionRows(Long pdfId) {
+        return transactionRowRepository.findByPdfIdOrderByRowIndexAsc(pdfId).stream()
+                .map(TransactionRowDto::from)
+                .toList();
+    }
+
+    public long getMinIOObjectSize(String minioPath) throws IOException {
         try {
-            return minIOService.downloadFile(minioPath);
+            return minIOService.statFile(minioPath).size();
+        } catch (IOException e) {
+            log.error("MinIO obyekt məlumatı alınmadı: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    public InputStream openFromMinIO(String minioPath, long offset, long length) throws IOException {
+        try {
+            return minIOService.openFile(minioPath, offset, length);
         } catch (IOException e) {
             log.error("MinIO-dan fayl endirilməsi uğursuz oldu: {}", e.getMessage());
             throw e;
         }
     }
 
-    private String extractTablesWithPDFBox(PDDocument document) throws IOException {
-        PDFTextStripper stripper = new PDFTextStripper();
-        StringBuilder tableContent = new StringBuilder();
+    ExtractedTable extractTablesWithPDFBox(List<String> pageTexts) throws IOException {
+        List<RawRow> rows = new ArrayList<>();
         boolean tableStarted = false;
         StringBuilder currentRow = new StringBuilder();
+        int currentRowPage = 0;
         int nonTableLinesCount = 0;
         boolean headerFound = false;
+        Timer.Sample pdfBoxSample = pipelineMetrics.start();
 
         try {
-            for (int page = 1; page <= document.getNumberOfPages(); page++) {
-                stripper.setStartPage(page);
-                stripper.setEndPage(page);
-                String text = stripper.getText(document);
-                log.info("PDFBox xam çıxışı {} səhifəsi üçün: {}", page, text);
+            for (int page = 1; page <= pageTexts.size(); page++) {
+                String text = pageTexts.get(page - 1);
+                log.debug("PDFBox xam çıxışı {} səhifəsi üçün: {}", page, text);
                 String[] lines = text.split("\n");
 
                 for (int i = 0; i < lines.length; i++) {
                     String line = lines[i].trim();
+                    LineFeatures features = LineClassifier.classify(line);
 
                     // Cədvəl başlığını tapmaq
-                    if (!headerFound && isPotentialTableHeader(line)) {
+                    if (!headerFound && features.isHeader()) {
                         headerFound = true;
                         log.debug("Cədvəl başlığı tapıldı: {}", line);
                         continue; // Başlığı əlavə etmirik, yalnız məlumat sətirlərini toplayırıq
@@ -285,11 +626,10 @@ public class PdfProcessorService {
 
                     // Cədvəlin başlanğıcını dinamik tapmaq
                     if (headerFound && !tableStarted) {
-                        if (line.matches("\\d{2}[.-]\\d{2}[.-]\\d{4}.*") || // Tarix formatı
-                                line.matches(".*(www\\.|http).*") ||         // Link formatı
-                                line.matches(".*[-+]?\\d+\\.\\d{2}.*")) {    // Rəqəmli məbləğ formatı
+                        if (features.startsRow()) { // Tarix, link və ya məbləğ formatı
                             tableStarted = true;
                             currentRow.append(line);
+                            currentRowPage = page - 1;
                             nonTableLinesCount = 0;
                             log.debug("Cədvəl başlanğıcı tapıldı: {}", line);
                         } else {
@@ -301,25 +641,19 @@ public class PdfProcessorService {
                     // Cədvəl başladıqdan sonra
                     if (tableStarted) {
                         // Tarix, link və ya məbləğ ilə başlayan yeni sətir
-                        if (line.matches("\\d{2}[.-]\\d{2}[.-]\\d{4}.*") || // Tarix formatı
-                                line.matches(".*(www\\.|http).*") ||         // Link formatı
-                                line.matches(".*[-+]?\\d+\\.\\d{2}.*")) {    // Rəqəmli məbləğ formatı
+                        if (features.startsRow()) {
                             if (currentRow.length() > 0) {
-                                tableContent.append(currentRow.toString()).append("\n");
+                                rows.add(new RawRow(currentRow.toString(), currentRowPage));
                                 log.debug("Tamamlanmış sətir cədvələ əlavə olundu: {}", currentRow.toString());
                                 currentRow.setLength(0);
                             }
                             currentRow.append(line);
+                            currentRowPage = page - 1;
                             nonTableLinesCount = 0;
                             log.debug("Cədvələ əlavə olunan yeni sətir: {}", line);
                         }
-                        // Cədvələ aid ola biləcək digər sətirlər
-                        else if (!line.isEmpty() &&
-                                !line.contains("Page") &&
-                                !line.contains("VÖEN") &&
-                                !line.contains("tel:") &&
-                                !line.contains("Bank") &&
-                                !line.matches(".*[A-Z]{2}\\d{2}[A-Z]{4}\\d+.*")) { // IBAN filtiri
+                        // Cədvələ aid ola biləcək digər sətirlər (səhifə nömrəsi, rekvizit və IBAN sətirləri xaric)
+                        else if (!line.isEmpty() && !LineClassifier.isPageFurniture(line, features)) {
                             if (currentRow.length() > 0) {
                                 currentRow.append(" ").append(line);
                                 log.debug("Mövcud sətrə əlavə olundu: {}", line);
@@ -332,7 +666,7 @@ public class PdfProcessorService {
                             log.debug("Cədvələ aid olmayan sətir: {} (nonTableLinesCount: {})", line, nonTableLinesCount);
                             if (nonTableLinesCount >= 2) { // 2 ardıcıl cədvələ aid olmayan sətir
                                 if (currentRow.length() > 0) {
-                                    tableContent.append(currentRow.toString()).append("\n");
+                                    rows.add(new RawRow(currentRow.toString(), currentRowPage));
                                     log.debug("Cədvəl bitdi, son sətir əlavə olundu: {}", currentRow.toString());
                                 }
                                 tableStarted = false;
@@ -347,95 +681,66 @@ public class PdfProcessorService {
 
             // Sonuncu sətri əlavə et
             if (currentRow.length() > 0) {
-                tableContent.append(currentRow.toString()).append("\n");
+                rows.add(new RawRow(currentRow.toString(), currentRowPage));
                 log.debug("Son sətir cədvələ əlavə olundu: {}", currentRow.toString());
             }
 
-            String result = tableContent.toString().trim();
-            log.info("PDFBox son çıxarılmış cədvəl: {}", result);
-            return result.isEmpty() ? "" : result;
+            ExtractedTable table = new ExtractedTable(rows, List.of());
+            log.debug("PDFBox son çıxarılmış cədvəl: {}", table.getText());
+            return table;
         } catch (Exception e) {
             log.error("PDFBox ilə cədvəl çıxarılmasında xəta: {}", e.getMessage());
             throw new IOException("PDFBox ilə cədvəl çıxarılmadı", e);
+        } finally {
+            pipelineMetrics.stop(pdfBoxSample, Stage.PDFBOX);
         }
     }
 
-    private boolean isPotentialTableHeader(String line) {
-        String[] words = line.split("\\s+");
-        int tableKeywordsCount = 0;
-        String[] tableKeywords = {"Tarix", "Əməliyyat", "Məbləğ", "Mədaxil", "Məxaric",
-                "Balans", "Təyinat", "Kart", "Komissiya", "ƏDV"};
-
-        for (String word : words) {
-            for (String keyword : tableKeywords) {
-                if (word.equalsIgnoreCase(keyword) || word.contains(keyword)) {
-                    tableKeywordsCount++;
-                    break;
-                }
-            }
-        }
-
-        return tableKeywordsCount >= 2; // Ən azı 2 sütun adına bənzər söz
-    }
-
-    public List<PdfEntity> getPdfsByFileName(String fileName) {
+    public PdfPageResponse getPdfsByFileName(String fileName, Long after, int size) {
         try {
-            return pdfRepository.findByFileName(fileName);
+            return toPage(pdfRepository.findByFileNameAndIdGreaterThanOrderByIdAsc(
+                    fileName, cursorOf(after), Limit.of(pageSizeOf(size))), pageSizeOf(size));
         } catch (Exception e) {
             log.error("Fayl adına görə PDF-lər siyahıya alınarkən xəta: {}", e.getMessage());
-            return List.of();
+            return new PdfPageResponse(List.of(), null);
         }
     }
 
-    public List<PdfEntity> getAllPdfs() {
+    public PdfPageResponse getAllPdfs(Long after, int size) {
         try {
-            return pdfRepository.findAll();
+            return toPage(pdfRepository.findByIdGreaterThanOrderByIdAsc(
+                    cursorOf(after), Limit.of(pageSizeOf(size))), pageSizeOf(size));
         } catch (Exception e) {
             log.error("Bütün PDF-lər siyahıya alınarkən xəta: {}", e.getMessage());
-            return List.of();
+            return new PdfPageResponse(List.of(), null);
         }
     }
 
-    public void analyzeTextAsync(Long pdfId, String extractedText, String hash) {
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                AIAnalysisRequest request = AIAnalysisRequest.builder()
-                        .pdfId(pdfId.toString()) // Long-dan String-ə çevrilmə
-                        .extractedText(extractedText)
-                        .analysisType("METADATA_COMPLETION")
-                        .hash(hash)
-                        .build();
-
-                AIAnalysisResponse response = aiServiceClient.analyzeText(request);
-
-                if (response != null && response.isSuccess() && response.getExtractedMetadata() != null) {
-                    Optional<PdfEntity> optionalPdf = pdfRepository.findById(pdfId);
-                    optionalPdf.ifPresent(pdf -> {
-                        pdf.setMetadata(convertMetadataToJsonString(response.getExtractedMetadata()));
-                        pdfRepository.save(pdf);
-                        log.info("PDF metadata ID üçün yeniləndi: {}", pdfId);
-                    });
-                } else {
-                    log.warn("AI təhlili PDF ID üçün uğursuz oldu: {}", pdfId);
-                }
-
-                return response;
-            } catch (Exception e) {
-                log.error("AI təhlilində xəta: {}", e.getMessage());
-                return null;
+    // Bütün PDF xülasələrini NDJSON (hər sətirdə bir JSON) kimi səhifə-səhifə yazır, hamısı yaddaşa yığılmır
+    public void exportSummariesAsNdjson(OutputStream outputStream) throws IOException {
+        Long cursor = 0L;
+        while (cursor != null) {
+            PdfPageResponse page = toPage(pdfRepository.findByIdGreaterThanOrderByIdAsc(
+                    cursor, Limit.of(MAX_PAGE_SIZE)), MAX_PAGE_SIZE);
+            for (PdfSummary summary : page.getItems()) {
+                outputStream.write(objectMapper.writeValueAsBytes(summary));
+                outputStream.write('\n');
             }
-        }).exceptionally(ex -> {
-            log.error("AI xidməti uğursuz oldu: {}", ex.getMessage());
-            return null;
-        });
+            outputStream.flush();
+            cursor = page.getNextCursor();
+        }
     }
 
-    private String convertMetadataToJsonString(Map<String, Object> metadata) {
-        try {
-            return new ObjectMapper().writeValueAsString(metadata);
-        } catch (JsonProcessingException e) {
-            log.error("Metadata JSON-a çevrilərkən xəta", e);
-            return "{}";
-        }
+    private PdfPageResponse toPage(List<PdfSummary> items, int size) {
+        Long nextCursor = items.size() == size ? items.get(items.size() - 1).getId() : null;
+        return new PdfPageResponse(items, nextCursor);
+    }
+
+    private long cursorOf(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    private int pageSizeOf(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.entity.ExtractionStrategy;
+import com.example.pdfprocessorservice.util.TesseractPool;
+import com.example.pdfprocessorservice.util.TesseractPools;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// PDF emal mərhələlərinin Micrometer metrikləri (/actuator/prometheus).
+// Executor-ların doluluğu (executor.active, executor.queued) Spring Boot tərəfindən bean adı ilə avtomatik yazılır.
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    public enum Stage {
+        DEDUPE,       // Fayl/mətn hash-i üzrə baza sorğuları
+        LOAD,         // PDFBox ilə sənədin açılması
+        PROBE,        // Mətn qatının yoxlanması
+        TRIAGE,
+        RENDER,       // 300 DPI render (səhifə üzrə)
+        BINARIZE,     // Səhifə üzrə
+        TABLE_DETECT, // Səhifə üzrə
+        OCR,          // Səhifə üzrə Tesseract
+        PDFBOX,       // Mətn qatından cədvəl çıxarılması
+        ROW_PARSE,
+        MINIO_WAIT,   // MinIO yükləməsinin gözlənilməsi (yükləmə OCR ilə paralel gedir)
+        MINIO_UPLOAD,
+        DB_SAVE,
+        AI_DISPATCH   // AIService çağırışı (outbox)
+    }
+
+    public enum Outcome {
+        PREPARED, DUPLICATE, FAILED
+    }
+
+    private final MeterRegistry registry;
+    private final TesseractPools tesseractPools;
+    private final OcrResultCache ocrResultCache;
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Outcome, Timer> documentTimers = new EnumMap<>(Outcome.class);
+    private final Map<ExtractionStrategy, Counter> pageCounters = new EnumMap<>(ExtractionStrategy.class);
+    private final AtomicInteger documentsInFlight = new AtomicInteger();
+    private Counter pdfBoxFallbacks;
+    private Counter fileHashDuplicates;
+    private Counter textHashDuplicates;
+
+    @PostConstruct
+    void register() {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("pdf.pipeline.stage")
+                    .description("PDF emal mərhələsinin müddəti")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            documentTimers.put(outcome, Timer.builder("pdf.pipeline.document")
+                    .description("Bir sənədin hazırlanma müddəti (dublikat yoxlaması, render, OCR, sətir təhlili)")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (ExtractionStrategy strategy : ExtractionStrategy.values()) {
+            pageCounters.put(strategy, Counter.builder("pdf.pipeline.pages")
+                    .description("Emal olunmuş səhifələr, çıxarılma üsulu üzrə")
+                    .tag("strategy", strategy.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        pdfBoxFallbacks = Counter.builder("pdf.pipeline.pdfbox.fallbacks")
+                .description("OCR cədvəl çıxara bilmədiyi üçün PDFBox-a keçidlər")
+                .register(registry);
+        fileHashDuplicates = Counter.builder("pdf.pipeline.duplicates").tag("match", "file_hash").register(registry);
+        textHashDuplicates = Counter.builder("pdf.pipeline.duplicates").tag("match", "text_hash").register(registry);
+
+        Gauge.builder("pdf.pipeline.documents.in_flight", documentsInFlight, AtomicInteger::get)
+                .description("Hazırda emal olunan sənədlər")
+                .register(registry);
+        for (TesseractPool pool : tesseractPools.getPools()) {
+            Gauge.builder("tesseract.pool.engines", pool, TesseractPool::getPoolSize)
+                    .tag("languages", pool.getLanguage())
+                    .register(registry);
+            Gauge.builder("tesseract.pool.idle", pool, TesseractPool::getIdleCount)
+                    .description("Boş (və ya hələ yaradılmamış) Tesseract mühərrikləri")
+                    .tag("languages", pool.getLanguage())
+                    .register(registry);
+        }
+        FunctionCounter.builder("ocr.cache.lookups", ocrResultCache, cache -> cache.getStats().getHits())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("ocr.cache.lookups", ocrResultCache, cache -> cache.getStats().getRedisHits())
+                .tag("result", "redis_hit").register(registry);
+        FunctionCounter.builder("ocr.cache.lookups", ocrResultCache, cache -> cache.getStats().getMisses())
+                .tag("result", "miss").register(registry);
+        Gauge.builder("ocr.cache.size.bytes", ocrResultCache, cache -> cache.getStats().getSizeBytes())
+                .register(registry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, Stage stage) {
+        sample.stop(stageTimers.get(stage));
+    }
+
+    public Timer.Sample documentStarted() {
+        documentsInFlight.incrementAndGet();
+        return Timer.start(registry);
+    }
+
+    public void documentFinished(Timer.Sample sample, Outcome outcome) {
+        documentsInFlight.decrementAndGet();
+        sample.stop(documentTimers.get(outcome));
+    }
+
+    public void pagesProcessed(Iterable<ExtractionStrategy> strategies) {
+        strategies.forEach(strategy -> pageCounters.get(strategy).increment());
+    }
+
+    public void pdfBoxFallback() {
+        pdfBoxFallbacks.increment();
+    }
+
+    public void duplicateByFileHash() {
+        fileHashDuplicates.increment();
+    }
+
+    public void duplicateByTextHash() {
+        textHashDuplicates.increment();
+    }
+}
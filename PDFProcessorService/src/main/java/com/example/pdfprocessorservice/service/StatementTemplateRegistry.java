@@ -0,0 +1,82 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.util.StatementTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+// Bank çıxarışı şablonlarını başlanğıcda bir dəfə yükləyir və kompilyasiya edir.
+// Yeni bank əlavə etmək üçün kod dəyişmək lazım deyil: pdf.extraction.templates.location
+// xarici fayla (məs. file:/etc/pdf/statement-templates.json) yönləndirilə bilər.
+// Şablonlar fayldakı sıra ilə yoxlanılır, ona görə ümumi şablon sonda olmalıdır.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementTemplateRegistry {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${pdf.extraction.templates.location:classpath:statement-templates.json}")
+    private Resource location;
+
+    private List<StatementTemplate> templates = List.of();
+
+    @PostConstruct
+    public void load() throws IOException {
+        JsonNode root;
+        try (InputStream in = location.getInputStream()) {
+            root = objectMapper.readTree(in);
+        }
+
+        List<StatementTemplate> loaded = new ArrayList<>();
+        for (JsonNode node : root.path("templates")) {
+            loaded.add(compile(node));
+        }
+        if (loaded.isEmpty()) {
+            throw new IllegalStateException("Heç bir çıxarış şablonu tapılmadı: " + location);
+        }
+        templates = List.copyOf(loaded);
+        log.info("{} çıxarış şablonu yükləndi: {}", templates.size(),
+                templates.stream().map(StatementTemplate::getId).toList());
+    }
+
+    public List<StatementTemplate> getTemplates() {
+        return templates;
+    }
+
+    private StatementTemplate compile(JsonNode node) {
+        String id = node.path("id").asText(null);
+        if (id == null || !node.hasNonNull("rowStart") || !node.has("headerAnchors")) {
+            throw new IllegalStateException("Şablonda id, headerAnchors və rowStart məcburidir: " + node);
+        }
+        try {
+            List<Pattern> headerAnchors = patterns(node.path("headerAnchors"));
+            int minHeaderMatches = node.path("minHeaderMatches").asInt(headerAnchors.size());
+            List<String> columns = new ArrayList<>();
+            node.path("columns").forEach(column -> columns.add(column.asText()));
+            return new StatementTemplate(id, headerAnchors, Math.max(1, minHeaderMatches),
+                    Pattern.compile(node.path("rowStart").asText()),
+                    patterns(node.path("endMarkers")), List.copyOf(columns));
+        } catch (PatternSyntaxException e) {
+            throw new IllegalStateException("Şablonda yanlış regex (" + id + "): " + e.getMessage(), e);
+        }
+    }
+
+    private List<Pattern> patterns(JsonNode array) {
+        List<Pattern> patterns = new ArrayList<>();
+        array.forEach(value -> patterns.add(Pattern.compile(value.asText())));
+        return List.copyOf(patterns);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.service.PipelineMetrics.Stage;
+import com.example.pdfprocessorservice.util.ImageProcessor;
+import com.example.pdfprocessorservice.util.TesseractPools;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.ResourceCache;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Səhifəni 300 DPI-da bütöv yox, üfüqi zolaqlarla render edib OCR edir ki, 300 DPI render raster-i
+// maxStripBytes ilə məhdud qalsın (A4 üçün tam boz şəkil ~8.7 MB-dır).
+// Məhdudiyyət səhifəyə daxil edilmiş şəkillərə aid deyil: skan PDF-də səhifə bir tam səhifəlik image XObject-dir,
+// PDFBox onu hər render-də öz ölçüsündə decode edir. Ona görə səhifə üçün ayrıca ResourceCache istifadə olunur:
+// şəkil önizləmə və bütün zolaqlar üçün bir dəfə decode olunur, yaddaşda isə decode olunmuş skan + zolaq qalır.
+// Yalnız mətn/vektor səhifələrdə pik yaddaş həqiqətən zolaq ölçüsündədir.
+// Cədvəl bölgəsi əvvəlcə aşağı ayırdetməli önizləmədə tapılır; yalnız o bölgə zolaqlarla render olunur.
+// Zolaq sərhədi boş (mürəkkəbsiz) sətirdən keçirilir ki, mətn xətti iki zolağa bölünməsin və
+// zolaqların mətni sadəcə ardıcıl birləşdirilərək oxu sırası saxlanılsın.
+// Deskew bütöv səhifə tələb etdiyi üçün bu rejimdə tətbiq olunmur.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripPageOcr {
+
+    private static final int DPI = 300;
+    private static final int MIN_STRIP_ROWS = 64;
+
+    private final ImageProcessor imageProcessor;
+    private final TableRegionDetector tableRegionDetector;
+    private final OcrResultCache ocrResultCache;
+    private final TesseractPools tesseractPools;
+    private final PipelineMetrics pipelineMetrics;
+
+    @Value("${pdf.ocr.strips.max-strip-bytes:2097152}")
+    private long maxStripBytes;
+
+    // Binarlaşdırma pəncərəsi üçün zolağın yuxarı və aşağısında əlavə render olunan sətirlər
+    @Value("${pdf.ocr.strips.margin-rows:32}")
+    private int marginRows;
+
+    // Zolağın aşağı hissəsinin bu payında boş sətir axtarılır
+    @Value("${pdf.ocr.strips.cut-search-fraction:0.25}")
+    private double cutSearchFraction;
+
+    @Value("${pdf.ocr.table-detection.dpi:75}")
+    private int previewDpi;
+
+    // renderer paylaşılır: render addımları onun üzərində sinxronlaşdırılır (PDDocument thread-safe deyil)
+    public String ocr(PDDocument document, PDFRenderer renderer, PDPage pdPage, int page, String languages)
+            throws IOException {
+        PageResourceCache pageCache = new PageResourceCache();
+        float scale = DPI / 72f;
+        PDRectangle cropBox = pdPage.getCropBox();
+        boolean rotated = pdPage.getRotation() % 180 != 0;
+        int pageWidth = (int) Math.max(Math.floor((rotated ? cropBox.getHeight() : cropBox.getWidth()) * scale), 1);
+        int pageHeight = (int) Math.max(Math.floor((rotated ? cropBox.getWidth() : cropBox.getHeight()) * scale), 1);
+
+        Rectangle bounds = findTableBounds(document, renderer, pageCache, page, pageWidth, pageHeight)
+                .orElse(new Rectangle(0, 0, pageWidth, pageHeight));
+
+        int left = Math.max(0, bounds.x - marginRows);
+        int right = Math.min(pageWidth, bounds.x + bounds.width + marginRows);
+        int bufferWidth = right - left;
+        int stripRows = (int) Math.max(MIN_STRIP_ROWS, maxStripBytes / bufferWidth - 2L * marginRows);
+        BufferedImage buffer = new BufferedImage(bufferWidth, stripRows + 2 * marginRows, BufferedImage.TYPE_BYTE_GRAY);
+        Rectangle ocrColumns = new Rectangle(bounds.x - left, 0, bounds.width, 0);
+
+        StringBuilder text = new StringBuilder();
+        int end = bounds.y + bounds.height;
+        int start = bounds.y;
+        int strips = 0;
+        try {
+            while (start < end) {
+                int top = Math.max(0, start - marginRows);
+                int bottom = Math.min(end, start + stripRows);
+                renderStrip(document, renderer, pageCache, page, scale, buffer, left, top);
+
+                Timer.Sample binarizeSample = pipelineMetrics.start();
+                imageProcessor.binarizeInPlace(buffer);
+                pipelineMetrics.stop(binarizeSample, Stage.BINARIZE);
+
+                int cut = bottom == end ? end : findCut(buffer, ocrColumns, top, start, bottom);
+                Rectangle region = new Rectangle(ocrColumns.x, start - top, ocrColumns.width, cut - start);
+                String stripText = ocrStrip(buffer, region, languages);
+                if (!stripText.isBlank()) {
+                    text.append(stripText.stripTrailing()).append('\n');
+                }
+                start = cut;
+                strips++;
+            }
+        } catch (TesseractException e) {
+            // Tam səhifə rejimi kimi boş qaytarılır: yarımçıq səhifə checkpoint-ə yazılıb təkrar cəhdlərdə istifadə olunmasın
+            log.error("Tesseract OCR {} səhifəsi üçün uğursuz oldu ({} zolaq oxunmuşdu): {}", page, strips, e.getMessage());
+            return "";
+        }
+        log.debug("{} səhifəsi {} zolaqla OCR olundu (zolaq: {}x{})", page, strips, bufferWidth, buffer.getHeight());
+        return text.toString();
+    }
+
+    // Önizləmə (~75 DPI) ilə cədvəl bölgəsi; 300 DPI koordinatlarına çevrilir
+    private Optional<Rectangle> findTableBounds(PDDocument document, PDFRenderer renderer, PageResourceCache pageCache,
+                                                int page, int pageWidth, int pageHeight) throws IOException {
+        BufferedImage preview;
+        synchronized (renderer) {
+            ResourceCache documentCache = document.getResourceCache();
+            document.setResourceCache(pageCache);
+            try {
+                preview = renderer.renderImageWithDPI(page, previewDpi, ImageType.GRAY);
+            } finally {
+                document.setResourceCache(documentCache);
+            }
+        }
+        Timer.Sample detectSample = pipelineMetrics.start();
+        Optional<Rectangle> region = tableRegionDetector.detect(imageProcessor.binarizeInPlace(preview), previewDpi);
+        pipelineMetrics.stop(detectSample, Stage.TABLE_DETECT);
+        double factor = (double) DPI / previewDpi;
+        return region.map(r -> new Rectangle((int) Math.floor(r.x * factor), (int) Math.floor(r.y * factor),
+                        (int) Math.ceil(r.width * factor), (int) Math.ceil(r.height * factor))
+                .intersection(new Rectangle(0, 0, pageWidth, pageHeight)))
+                .filter(r -> !r.isEmpty());
+    }
+
+    private void renderStrip(PDDocument document, PDFRenderer renderer, PageResourceCache pageCache, int page,
+                             float scale, BufferedImage buffer, int left, int top) throws IOException {
+        Graphics2D graphics = buffer.createGraphics();
+        try {
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, buffer.getWidth(), buffer.getHeight());
+            graphics.translate(-left, -top);
+            Timer.Sample renderSample = pipelineMetrics.start();
+            synchronized (renderer) {
+                ResourceCache documentCache = document.getResourceCache();
+                document.setResourceCache(pageCache);
+                try {
+                    renderer.renderPageToGraphics(page, graphics, scale);
+                } finally {
+                    document.setResourceCache(documentCache);
+                }
+            }
+            pipelineMetrics.stop(renderSample, Stage.RENDER);
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    // Zolağın aşağı hissəsində OCR sütunları daxilində ən aşağı boş sətir; tapılmasa ən az mürəkkəbli sətir
+    private int findCut(BufferedImage buffer, Rectangle columns, int top, int start, int bottom) {
+        byte[] pixels = ((DataBufferByte) buffer.getRaster().getDataBuffer()).getData();
+        int width = buffer.getWidth();
+        int searchFrom = Math.max(start + 1, bottom - (int) Math.ceil((bottom - start) * cutSearchFraction));
+        int bestRow = bottom;
+        int bestInk = Integer.MAX_VALUE;
+        for (int y = bottom - 1; y >= searchFrom; y--) {
+            int rowOffset = (y - top) * width;
+            int ink = 0;
+            for (int x = columns.x; x < columns.x + columns.width && ink < bestInk; x++) {
+                if (pixels[rowOffset + x] == 0) {
+                    ink++;
+                }
+            }
+            if (ink == 0) {
+                return y;
+            }
+            if (ink < bestInk) {
+                bestInk = ink;
+                bestRow = y;
+            }
+        }
+        return bestRow;
+    }
+
+    private String ocrStrip(BufferedImage buffer, Rectangle region, String languages) throws TesseractException {
+        String cacheKey = ocrResultCache.isEnabled() ? ocrResultCache.fingerprint(buffer, region, languages) : null;
+        if (cacheKey != null) {
+            Optional<String> cached = ocrResultCache.get(cacheKey);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        Timer.Sample ocrSample = pipelineMetrics.start();
+        String text = tesseractPools.get(languages).doOCR(buffer, region);
+        pipelineMetrics.stop(ocrSample, Stage.OCR);
+        if (cacheKey != null) {
+            ocrResultCache.put(cacheKey, text);
+        }
+        return text;
+    }
+
+    // Səhifə render-ləri arasında XObject-ləri güclü istinadla saxlayır. Eyni PDImageXObject obyekti qaytarıldığı
+    // üçün PDFBox-un onun üzərindəki decode keşi (getImage) zolaqdan zolağa işləyir; sənədin öz keşi SoftReference
+    // istifadə edir və ya söndürülmüş ola bilər. Keş səhifə bitəndə atılır.
+    private static final class PageResourceCache extends DefaultResourceCache {
+        private final Map<COSObject, PDXObject> xObjects = new HashMap<>();
+
+        @Override
+        public PDXObject getXObject(COSObject indirect) {
+            return xObjects.get(indirect);
+        }
+
+        @Override
+        public void put(COSObject indirect, PDXObject xobject) {
+            xObjects.put(indirect, xobject);
+        }
+    }
+}
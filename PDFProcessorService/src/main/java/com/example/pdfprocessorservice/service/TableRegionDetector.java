@@ -0,0 +1,243 @@
+package com.example.pdfprocessorservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Binarlaşdırılmış səhifədə əməliyyatlar cədvəlinin sərhədlərini tapır ki, OCR yalnız o hissədə işləsin.
+// Analiz aşağı ayırdetmədə aparılır: hər blockSize x blockSize blok bir hüceyrəyə sıxılır (300 DPI → ~75 DPI).
+// Cədvəl sətri ən azı minColumns sütun boşluğu ilə ayrılmış seqmentdən ibarət mətn xəttidir;
+// ardıcıl belə xətlər (başlıq daxil) və onları əhatə edən üfüqi xətlər cədvəl bölgəsini təşkil edir.
+@Service
+@Slf4j
+public class TableRegionDetector {
+
+    @Value("${pdf.ocr.table-detection.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.ocr.table-detection.dpi:75}")
+    private int detectionDpi;
+
+    @Value("${pdf.ocr.table-detection.min-columns:3}")
+    private int minColumns;
+
+    @Value("${pdf.ocr.table-detection.min-rows:3}")
+    private int minRows;
+
+    @Value("${pdf.ocr.table-detection.column-gap-inches:0.12}")
+    private double columnGapInches;
+
+    @Value("${pdf.ocr.table-detection.margin-inches:0.1}")
+    private double marginInches;
+
+    // Bölgə səhifənin bu hissəsindən böyükdürsə kəsməyin faydası yoxdur, bütün səhifə OCR olunur
+    @Value("${pdf.ocr.table-detection.max-area-fraction:0.85}")
+    private double maxAreaFraction;
+
+    // image: ağ fon (255) üzərində qara (0) piksellərdən ibarət TYPE_BYTE_GRAY şəkil
+    public Optional<Rectangle> detect(BufferedImage image, int dpi) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<Rectangle> region = findTable(image, dpi);
+        if (region.isEmpty()) {
+            return region;
+        }
+        Rectangle bounds = region.get();
+        double areaFraction = (double) bounds.width * bounds.height / ((double) image.getWidth() * image.getHeight());
+        if (areaFraction > maxAreaFraction) {
+            return Optional.empty();
+        }
+        log.debug("Cədvəl bölgəsi tapıldı: {} (səhifənin {}%-i)", bounds, Math.round(areaFraction * 100));
+        return region;
+    }
+
+    // Sahə məhdudiyyəti olmadan cədvəl bölgəsi; səhifədə cədvəl quruluşu varmı sualına da cavab verir
+    public Optional<Rectangle> findTable(BufferedImage image, int dpi) {
+        return findTable(image, dpi, minRows);
+    }
+
+    // minRows: bölgə sayılması üçün lazım olan ən az cədvəl sətri (triage öz, daha yumşaq həddini verir)
+    public Optional<Rectangle> findTable(BufferedImage image, int dpi, int minRows) {
+        if (image.getType() != BufferedImage.TYPE_BYTE_GRAY
+                || !(image.getRaster().getSampleModel() instanceof ComponentSampleModel)) {
+            return Optional.empty();
+        }
+        int blockSize = Math.max(1, Math.round((float) dpi / detectionDpi));
+        boolean[][] ink = downsample(image, blockSize);
+        int gridHeight = ink.length;
+        int gridWidth = gridHeight == 0 ? 0 : ink[0].length;
+        if (gridWidth == 0) {
+            return Optional.empty();
+        }
+        int cellDpi = Math.max(1, dpi / blockSize);
+
+        List<int[]> lines = findTextLines(ink);
+        int minGapCells = Math.max(2, (int) Math.round(columnGapInches * cellDpi));
+
+        // Ən çox cədvəl sətri olan ardıcıl xətlər qrupu; arada 2-yə qədər adi xətt (sətir köçürmələri) ola bilər
+        int bestStart = -1, bestEnd = -1, bestCount = 0;
+        int runStart = -1, runEnd = -1, runCount = 0, misses = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            int[] line = lines.get(i);
+            boolean tabular = countSegments(ink, line[0], line[1], minGapCells) >= minColumns;
+            if (tabular) {
+                if (runStart < 0) {
+                    runStart = i;
+                    runCount = 0;
+                }
+                runEnd = i;
+                runCount++;
+                misses = 0;
+            } else if (runStart >= 0 && ++misses > 2) {
+                runStart = -1;
+            }
+            if (runStart >= 0 && runCount > bestCount) {
+                bestStart = runStart;
+                bestEnd = runEnd;
+                bestCount = runCount;
+            }
+        }
+
+        int top = -1, bottom = -1;
+        if (bestCount >= minRows) {
+            top = lines.get(bestStart)[0];
+            bottom = lines.get(bestEnd)[1];
+        }
+
+        // Üfüqi xətlər cədvəli əhatə edirsə (və ya mətn analizində tapılmayıbsa) bölgəni onlara qədər genişləndir
+        int[] rules = findHorizontalRules(ink);
+        if (rules != null) {
+            if (top < 0) {
+                top = rules[0];
+                bottom = rules[1];
+            } else if (rules[0] <= bottom && rules[1] >= top) {
+                top = Math.min(top, rules[0]);
+                bottom = Math.max(bottom, rules[1]);
+            }
+        }
+        if (top < 0) {
+            return Optional.empty();
+        }
+
+        int left = gridWidth, right = -1;
+        for (int y = top; y <= bottom; y++) {
+            for (int x = 0; x < gridWidth; x++) {
+                if (ink[y][x]) {
+                    left = Math.min(left, x);
+                    right = Math.max(right, x);
+                }
+            }
+        }
+        if (right < left) {
+            return Optional.empty();
+        }
+
+        int margin = (int) Math.round(marginInches * cellDpi);
+        int x0 = Math.max(0, (left - margin) * blockSize);
+        int y0 = Math.max(0, (top - margin) * blockSize);
+        int x1 = Math.min(image.getWidth(), (right + margin + 1) * blockSize);
+        int y1 = Math.min(image.getHeight(), (bottom + margin + 1) * blockSize);
+        return Optional.of(new Rectangle(x0, y0, x1 - x0, y1 - y0));
+    }
+
+    // Blokda ən azı bir qara piksel varsa hüceyrə "mürəkkəbli" sayılır, nazik xətlər itmir
+    private boolean[][] downsample(BufferedImage image, int blockSize) {
+        Raster raster = image.getRaster();
+        byte[] pixels = ((DataBufferByte) raster.getDataBuffer()).getData();
+        int stride = ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride();
+        int offset = raster.getDataBuffer().getOffset()
+                - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        boolean[][] ink = new boolean[(height + blockSize - 1) / blockSize][(width + blockSize - 1) / blockSize];
+        for (int y = 0; y < height; y++) {
+            boolean[] cells = ink[y / blockSize];
+            int row = offset + y * stride;
+            for (int x = 0; x < width; x++) {
+                if (pixels[row + x] == 0) {
+                    cells[x / blockSize] = true;
+                }
+            }
+        }
+        return ink;
+    }
+
+    // Mürəkkəbli ardıcıl sətirlər qrupu bir mətn xətti sayılır: [başlanğıc, son]
+    private List<int[]> findTextLines(boolean[][] ink) {
+        List<int[]> lines = new ArrayList<>();
+        int start = -1;
+        for (int y = 0; y < ink.length; y++) {
+            boolean hasInk = false;
+            for (boolean cell : ink[y]) {
+                if (cell) {
+                    hasInk = true;
+                    break;
+                }
+            }
+            if (hasInk && start < 0) {
+                start = y;
+            } else if (!hasInk && start >= 0) {
+                lines.add(new int[]{start, y - 1});
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            lines.add(new int[]{start, ink.length - 1});
+        }
+        return lines;
+    }
+
+    // Xətt daxilində ən azı minGap boş sütunla ayrılmış mürəkkəb qruplarının sayı
+    private int countSegments(boolean[][] ink, int top, int bottom, int minGap) {
+        int width = ink[0].length;
+        int segments = 0;
+        int gap = minGap;
+        for (int x = 0; x < width; x++) {
+            boolean column = false;
+            for (int y = top; y <= bottom && !column; y++) {
+                column = ink[y][x];
+            }
+            if (column) {
+                if (gap >= minGap) {
+                    segments++;
+                }
+                gap = 0;
+            } else {
+                gap++;
+            }
+        }
+        return segments;
+    }
+
+    // Enin yarısından uzun fasiləsiz qara xətlər; ən azı iki belədirsə [ilk, son] qaytarılır
+    private int[] findHorizontalRules(boolean[][] ink) {
+        int width = ink[0].length;
+        int first = -1, last = -1, count = 0;
+        for (int y = 0; y < ink.length; y++) {
+            int run = 0, longest = 0;
+            for (int x = 0; x < width; x++) {
+                run = ink[y][x] ? run + 1 : 0;
+                longest = Math.max(longest, run);
+            }
+            if (longest >= width / 2) {
+                if (first < 0) {
+                    first = y;
+                }
+                last = y;
+                count++;
+            }
+        }
+        return count >= 2 && last > first ? new int[]{first, last} : null;
+    }
+}
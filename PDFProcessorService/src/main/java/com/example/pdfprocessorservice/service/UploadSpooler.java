@@ -0,0 +1,55 @@
+package com.example.pdfprocessorservice.service;
+
+import com.example.pdfprocessorservice.util.SpooledUpload;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+
+// Yüklənən faylı heap-ə oxumadan bir dəfə müvəqqəti fayla köçürür
+@Service
+@Slf4j
+public class UploadSpooler {
+
+    @Value("${pdf.ingest.spool-dir:${java.io.tmpdir}}")
+    private String spoolDir;
+
+    private Path spoolPath;
+
+    @PostConstruct
+    public void init() throws IOException {
+        spoolPath = Files.createDirectories(Paths.get(spoolDir));
+        log.info("Yükləmələr üçün müvəqqəti qovluq: {}", spoolPath);
+    }
+
+    public SpooledUpload spool(MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return spool(inputStream, file.getOriginalFilename());
+        }
+    }
+
+    public SpooledUpload spool(InputStream inputStream, String originalFilename) throws IOException {
+        Path target = Files.createTempFile(spoolPath, "upload-", ".pdf");
+        try {
+            // Hash fayl diskə yazılarkən hesablanır, ayrıca oxuma lazım olmur
+            MessageDigest digest = DigestUtils.getSha256Digest();
+            long size = Files.copy(new DigestInputStream(inputStream, digest), target, StandardCopyOption.REPLACE_EXISTING);
+            return new SpooledUpload(target, originalFilename, size, Hex.encodeHexString(digest.digest()));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+}
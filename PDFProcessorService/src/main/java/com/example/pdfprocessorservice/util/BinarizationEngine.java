@@ -0,0 +1,316 @@
+package com.example.pdfprocessorservice.util;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+// Boz (TYPE_BYTE_GRAY) şəkli birbaşa raster massivi üzərində, yerində binarlaşdırır.
+// Sauvola adaptiv threshold-u sütun cəmləri və orijinal sətirlərin halqa buferi ilə hesablanır,
+// ona görə əlavə tam səhifə şəkli yaradılmır. Buferlər hər thread üçün təkrar istifadə olunur.
+public class BinarizationEngine {
+
+    public enum Method {
+        OTSU, SAUVOLA
+    }
+
+    private static final int MAX_DESKEW_SAMPLES = 200_000;
+
+    private final Method method;
+    private final int windowRadius;
+    private final double sauvolaK;
+    private final double dynamicRange;
+    private final boolean deskewEnabled;
+    private final double maxSkewDegrees;
+    private final double skewStepDegrees;
+
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    public BinarizationEngine(Method method, int windowRadius, double sauvolaK, double dynamicRange,
+                              boolean deskewEnabled, double maxSkewDegrees, double skewStepDegrees) {
+        this.method = method;
+        this.windowRadius = Math.max(1, windowRadius);
+        this.sauvolaK = sauvolaK;
+        this.dynamicRange = dynamicRange;
+        this.deskewEnabled = deskewEnabled;
+        this.maxSkewDegrees = maxSkewDegrees;
+        this.skewStepDegrees = skewStepDegrees > 0 ? skewStepDegrees : 0.5;
+    }
+
+    // Qaytarılan şəkil adətən eyni obyektdir; yalnız deskew lazım olduqda yeni şəkil yaranır
+    public BufferedImage binarize(BufferedImage image) {
+        return binarize(image, deskewEnabled);
+    }
+
+    // Zolaq (strip) render-i üçün: deskew bütün səhifəni tələb edir, ona görə söndürülə bilər
+    public BufferedImage binarize(BufferedImage image, boolean deskew) {
+        BufferedImage gray = toGray(image);
+        WritableRaster raster = gray.getRaster();
+        byte[] pixels = ((DataBufferByte) raster.getDataBuffer()).getData();
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        int stride = ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride();
+        int offset = raster.getDataBuffer().getOffset()
+                - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+
+        if (method == Method.OTSU) {
+            applyGlobalThreshold(pixels, offset, stride, width, height, otsuThreshold(pixels, offset, stride, width, height));
+        } else {
+            applySauvola(pixels, offset, stride, width, height);
+        }
+
+        if (deskew) {
+            double angle = estimateSkew(pixels, offset, stride, width, height);
+            if (Math.abs(angle) >= skewStepDegrees) {
+                return rotate(gray, angle);
+            }
+        }
+        return gray;
+    }
+
+    // PDFBox ImageType.GRAY ilə render olunan şəkil artıq uyğundur; digər növlər bir dəfə çevrilir
+    private BufferedImage toGray(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY
+                && image.getRaster().getSampleModel() instanceof ComponentSampleModel) {
+            return image;
+        }
+        BufferedImage gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = gray.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return gray;
+    }
+
+    private int otsuThreshold(byte[] pixels, int offset, int stride, int width, int height) {
+        int[] histogram = buffers.get().histogram(256);
+        for (int y = 0; y < height; y++) {
+            int row = offset + y * stride;
+            for (int x = 0; x < width; x++) {
+                histogram[pixels[row + x] & 0xFF]++;
+            }
+        }
+
+        long total = (long) width * height;
+        double sumAll = 0;
+        for (int i = 0; i < 256; i++) {
+            sumAll += (double) i * histogram[i];
+        }
+        double sumBackground = 0;
+        long weightBackground = 0;
+        double bestVariance = -1;
+        int threshold = 128;
+        for (int i = 0; i < 256; i++) {
+            weightBackground += histogram[i];
+            if (weightBackground == 0) {
+                continue;
+            }
+            long weightForeground = total - weightBackground;
+            if (weightForeground == 0) {
+                break;
+            }
+            sumBackground += (double) i * histogram[i];
+            double meanBackground = sumBackground / weightBackground;
+            double meanForeground = (sumAll - sumBackground) / weightForeground;
+            double variance = (double) weightBackground * weightForeground
+                    * (meanBackground - meanForeground) * (meanBackground - meanForeground);
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = i;
+            }
+        }
+        return threshold;
+    }
+
+    private void applyGlobalThreshold(byte[] pixels, int offset, int stride, int width, int height, int threshold) {
+        for (int y = 0; y < height; y++) {
+            int row = offset + y * stride;
+            for (int x = 0; x < width; x++) {
+                pixels[row + x] = (pixels[row + x] & 0xFF) > threshold ? (byte) 0xFF : 0;
+            }
+        }
+    }
+
+    // T = m * (1 + k * (s / R - 1)), m və s (2r+1)x(2r+1) pəncərədəki orta və standart sapmadır.
+    // Sütun cəmləri şaquli pəncərəni, üfüqi sürüşən cəm isə üfüqi pəncərəni saxlayır.
+    // Sətirlər yerində dəyişdiyi üçün pəncərədən çıxan orijinal sətirlər halqa buferindən götürülür.
+    private void applySauvola(byte[] pixels, int offset, int stride, int width, int height) {
+        int r = windowRadius;
+        int ringRows = r + 2;
+        Buffers buf = buffers.get();
+        int[] colSum = buf.colSum(width);
+        long[] colSquares = buf.colSquares(width);
+        byte[] ring = buf.ring(ringRows * width);
+
+        // Başlanğıc şaquli pəncərə: [0, r]
+        for (int y = 0; y <= Math.min(r, height - 1); y++) {
+            addRow(pixels, offset + y * stride, width, colSum, colSquares, 1);
+        }
+
+        for (int y = 0; y < height; y++) {
+            int row = offset + y * stride;
+            int windowTop = Math.max(0, y - r);
+            int windowBottom = Math.min(height - 1, y + r);
+            int rowsInWindow = windowBottom - windowTop + 1;
+
+            // Cari sətrin orijinalını saxla ki, sonradan pəncərədən çıxarıla bilsin
+            System.arraycopy(pixels, row, ring, (y % ringRows) * width, width);
+
+            long sum = 0;
+            long squares = 0;
+            for (int x = 0; x <= Math.min(r, width - 1); x++) {
+                sum += colSum[x];
+                squares += colSquares[x];
+            }
+
+            for (int x = 0; x < width; x++) {
+                int left = x - r - 1;
+                int right = x + r;
+                if (x > 0) {
+                    if (right < width) {
+                        sum += colSum[right];
+                        squares += colSquares[right];
+                    }
+                    if (left >= 0) {
+                        sum -= colSum[left];
+                        squares -= colSquares[left];
+                    }
+                }
+                int colsInWindow = Math.min(width - 1, right) - Math.max(0, x - r) + 1;
+                double count = (double) colsInWindow * rowsInWindow;
+                double mean = sum / count;
+                double variance = Math.max(0, squares / count - mean * mean);
+                double threshold = mean * (1 + sauvolaK * (Math.sqrt(variance) / dynamicRange - 1));
+                int value = ring[(y % ringRows) * width + x] & 0xFF;
+                pixels[row + x] = value > threshold ? (byte) 0xFF : 0;
+            }
+
+            // Pəncərəni bir sətir aşağı sürüşdür
+            int leaving = y - r;
+            if (leaving >= 0) {
+                addRow(ring, (leaving % ringRows) * width, width, colSum, colSquares, -1);
+            }
+            int entering = y + r + 1;
+            if (entering < height) {
+                addRow(pixels, offset + entering * stride, width, colSum, colSquares, 1);
+            }
+        }
+    }
+
+    private static void addRow(byte[] source, int start, int width, int[] colSum, long[] colSquares, int sign) {
+        for (int x = 0; x < width; x++) {
+            int value = source[start + x] & 0xFF;
+            colSum[x] += sign * value;
+            colSquares[x] += sign * (long) value * value;
+        }
+    }
+
+    // Qara piksellərin sətir proyeksiyasının dispersiyası ən böyük olan bucaq mətn xətlərinə paraleldir
+    private double estimateSkew(byte[] pixels, int offset, int stride, int width, int height) {
+        long blackPixels = 0;
+        for (int y = 0; y < height; y++) {
+            int row = offset + y * stride;
+            for (int x = 0; x < width; x++) {
+                if (pixels[row + x] == 0) {
+                    blackPixels++;
+                }
+            }
+        }
+        if (blackPixels == 0) {
+            return 0;
+        }
+        int step = (int) Math.max(1, blackPixels / MAX_DESKEW_SAMPLES);
+
+        int steps = (int) Math.round(maxSkewDegrees / skewStepDegrees);
+        int[] projection = buffers.get().projection(height);
+        double bestScore = -1;
+        double bestAngle = 0;
+        for (int i = -steps; i <= steps; i++) {
+            double angle = i * skewStepDegrees;
+            double tan = Math.tan(Math.toRadians(angle));
+            Arrays.fill(projection, 0, height, 0);
+            long seen = 0;
+            for (int y = 0; y < height; y++) {
+                int row = offset + y * stride;
+                for (int x = 0; x < width; x++) {
+                    if (pixels[row + x] == 0 && seen++ % step == 0) {
+                        int projected = (int) Math.round(y - x * tan);
+                        if (projected >= 0 && projected < height) {
+                            projection[projected]++;
+                        }
+                    }
+                }
+            }
+            double score = 0;
+            for (int y = 0; y < height; y++) {
+                score += (double) projection[y] * projection[y];
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestAngle = angle;
+            }
+        }
+        return bestAngle;
+    }
+
+    private BufferedImage rotate(BufferedImage image, double angleDegrees) {
+        BufferedImage rotated = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = rotated.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.setTransform(AffineTransform.getRotateInstance(
+                Math.toRadians(-angleDegrees), image.getWidth() / 2.0, image.getHeight() / 2.0));
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return rotated;
+    }
+
+    // Hər worker thread-in öz buferləri; yalnız daha böyük səhifə gəldikdə böyüdülür
+    private static class Buffers {
+        private int[] histogram = new int[0];
+        private int[] colSum = new int[0];
+        private long[] colSquares = new long[0];
+        private byte[] ring = new byte[0];
+        private int[] projection = new int[0];
+
+        int[] histogram(int size) {
+            if (histogram.length < size) {
+                histogram = new int[size];
+            }
+            Arrays.fill(histogram, 0, size, 0);
+            return histogram;
+        }
+
+        int[] colSum(int size) {
+            if (colSum.length < size) {
+                colSum = new int[size];
+            }
+            Arrays.fill(colSum, 0, size, 0);
+            return colSum;
+        }
+
+        long[] colSquares(int size) {
+            if (colSquares.length < size) {
+                colSquares = new long[size];
+            }
+            Arrays.fill(colSquares, 0, size, 0);
+            return colSquares;
+        }
+
+        byte[] ring(int size) {
+            if (ring.length < size) {
+                ring = new byte[size];
+            }
+            return ring;
+        }
+
+        int[] projection(int size) {
+            if (projection.length < size) {
+                projection = new int[size];
+            }
+            return projection;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pdfprocessorservice.util;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Çıxarılmış cədvəl sətirləri və (şablon tapılıbsa) onun sütun sırası
+@Getter
+public class ExtractedTable {
+
+    public static final ExtractedTable EMPTY = new ExtractedTable(List.of(), List.of());
+
+    private final List<RawRow> rows;
+    private final List<String> columns;
+    private final String text; // Sətirlər "\n" ilə birləşdirilmiş (hash və AI üçün)
+
+    public ExtractedTable(List<RawRow> rows, List<String> columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.text = rows.stream().map(RawRow::getText).collect(Collectors.joining("\n")).trim();
+    }
+}
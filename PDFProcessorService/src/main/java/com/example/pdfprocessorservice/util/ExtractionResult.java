@@ -0,0 +1,19 @@
+package com.example.pdfprocessorservice.util;
+
+import com.example.pdfprocessorservice.entity.ExtractionStrategy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Sənəddən çıxarılmış cədvəl və hər səhifə üçün seçilmiş üsul
+@Getter
+@AllArgsConstructor
+public class ExtractionResult {
+    private final ExtractedTable table;
+    private final List<ExtractionStrategy> pageStrategies;
+
+    public String getText() {
+        return table.getText();
+    }
+}
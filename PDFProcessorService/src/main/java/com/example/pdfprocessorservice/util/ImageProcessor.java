@@ -1,27 +1,37 @@
 package com.example.pdfprocessorservice.util;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.awt.*;
 import java.awt.image.BufferedImage;
 
 @Service
 public class ImageProcessor {
 
-    public BufferedImage binarizeAndEnhance(BufferedImage image) {
-        int width = image.getWidth(); // Giriş şəklinin enini alır
-        int height = image.getHeight(); // Giriş şəklinin hündürlüyünü alır
-        BufferedImage processedImage = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY); // Yeni bir qara-ağ (binar) şəkil obyekti yaradır
+    private final BinarizationEngine binarizationEngine;
 
-        Graphics2D graphics = processedImage.createGraphics(); // Yeni şəkil üzərində çəkmək üçün qrafik konteksti yaradır
-        graphics.drawImage(image, 0, 0, null); // Orijinal şəkli yeni binar şəkilə kopyalayır (binarlaşdırma avtomatik olur)
-        graphics.dispose(); // Qrafik resurslarını təmizləyir, yaddaş sızmasının qarşısını alır
+    public ImageProcessor(@Value("${pdf.ocr.binarization.method:SAUVOLA}") BinarizationEngine.Method method,
+                          @Value("${pdf.ocr.binarization.window-radius:20}") int windowRadius,
+                          @Value("${pdf.ocr.binarization.sauvola-k:0.34}") double sauvolaK,
+                          @Value("${pdf.ocr.deskew.enabled:false}") boolean deskewEnabled,
+                          @Value("${pdf.ocr.deskew.max-angle-degrees:5}") double maxSkewDegrees) {
+        this.binarizationEngine = new BinarizationEngine(method, windowRadius, sauvolaK, 128,
+                deskewEnabled, maxSkewDegrees, 0.25);
+    }
 
-        return processedImage;
+    // Şəkil yerində binarlaşdırılır (boz render üçün əlavə tam səhifə şəkli yaradılmır).
+    // Sabit threshold kölgəli cədvəl sətirlərini qaraldırdı, adaptiv threshold onları saxlayır.
+    public BufferedImage binarizeAndEnhance(BufferedImage image) {
+        return binarizationEngine.binarize(image);
     }
 
     public BufferedImage enhanceImage(BufferedImage image) {
         return binarizeAndEnhance(image);
     }
+
+    // Səhifə zolağı və ya kiçik önizləmə üçün: həmişə yerində, deskew olmadan
+    public BufferedImage binarizeInPlace(BufferedImage image) {
+        return binarizationEngine.binarize(image, false);
+    }
 }
 
 
@@ -0,0 +1,176 @@
+package com.example.pdfprocessorservice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Çıxarış sətrini bir keçiddə təsnif edir: tarix, məbləğ, link, IBAN və cədvəl başlığı sözləri.
+// Hər sətir üçün bir neçə String.matches (hər dəfə yeni kompilyasiya olunan regex) əvəzinə
+// simvollar bir dəfə gəzilir və tapılan tarix/məbləğlər token kimi qaytarılır.
+// Semantika köhnə regex-lərlə eynidir:
+//   tarix   \d{2}[.-]\d{2}[.-]\d{4}
+//   məbləğ  [-+]?\d+\.\d{2}, minlik ayırıcı ilə [-+]?\d{1,3}([ ,\u00A0]\d{3})+\.\d{2} ("-1 250.00", "1,250.00")
+//   link    www\.|http
+//   IBAN    [A-Z]{2}\d{2}[A-Z]{4}\d+
+//   başlıq  ən azı 2 söz açar sözlə eynidir (registrsiz) və ya onu ehtiva edir
+public final class LineClassifier {
+
+    private static final String[] TABLE_KEYWORDS = {"Tarix", "Əməliyyat", "Məbləğ", "Mədaxil", "Məxaric",
+            "Balans", "Təyinat", "Kart", "Komissiya", "ƏDV"};
+    private static final int MIN_KEYWORD_LENGTH = 3;
+
+    private LineClassifier() {
+    }
+
+    public static LineFeatures classify(String line) {
+        int length = line.length();
+        boolean dateAtStart = false;
+        boolean amountLike = false;
+        boolean link = false;
+        boolean iban = false;
+        int headerWords = 0;
+        List<String> dates = null;
+        List<String> amounts = null;
+
+        int wordStart = -1;
+        int amountScanFrom = 0; // Tarix və ya məbləğ içindəki rəqəmlər yeni məbləğ kimi oxunmasın
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? line.charAt(i) : ' ';
+
+            // Söz sərhədləri (boşluqla ayrılmış) - başlıq açar sözləri üçün
+            if (Character.isWhitespace(c)) {
+                if (wordStart >= 0) {
+                    if (headerWords < 2 && isKeywordWord(line, wordStart, i)) {
+                        headerWords++;
+                    }
+                    wordStart = -1;
+                }
+                continue;
+            }
+            if (wordStart < 0) {
+                wordStart = i;
+            }
+
+            if (isDigit(c)) {
+                if (isDateAt(line, i)) {
+                    if (dates == null) {
+                        dates = new ArrayList<>(2);
+                    }
+                    dates.add(line.substring(i, i + 10));
+                    dateAtStart |= i == 0;
+                    amountScanFrom = i + 10;
+                } else if (i >= amountScanFrom && (i == 0 || !isDigit(line.charAt(i - 1)))) {
+                    int end = amountEnd(line, i);
+                    if (end > 0) {
+                        int start = i > 0 && (line.charAt(i - 1) == '-' || line.charAt(i - 1) == '+') ? i - 1 : i;
+                        if (amounts == null) {
+                            amounts = new ArrayList<>(4);
+                        }
+                        amounts.add(line.substring(start, end));
+                        amountScanFrom = end;
+                    }
+                }
+            } else if (c == '.') {
+                // Köhnə regex ilə eyni: harada olursa olsun rəqəm + nöqtə + iki rəqəm ("01.02.2024" daxil)
+                amountLike |= i > 0 && isDigit(line.charAt(i - 1)) && i + 2 < length
+                        && isDigit(line.charAt(i + 1)) && isDigit(line.charAt(i + 2));
+            } else if (!link && (c == 'w' || c == 'h')) {
+                link = line.startsWith("www.", i) || line.startsWith("http", i);
+            } else if (!iban && c >= 'A' && c <= 'Z') {
+                iban = isIbanAt(line, i);
+            }
+        }
+        return new LineFeatures(dateAtStart, amountLike, link, iban, headerWords >= 2,
+                dates == null ? List.of() : dates, amounts == null ? List.of() : amounts);
+    }
+
+    // PDFBox mətn qatında cədvəl sətrinin davamı sayılmayan sətirlər: səhifə nömrəsi, rekvizitlər, IBAN
+    public static boolean isPageFurniture(String line, LineFeatures features) {
+        return line.contains("Page") || line.contains("VÖEN") || line.contains("tel:") || line.contains("Bank")
+                || features.isIban();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDateAt(String line, int i) {
+        if (i + 10 > line.length()) {
+            return false;
+        }
+        char sep1 = line.charAt(i + 2);
+        char sep2 = line.charAt(i + 5);
+        return isDigit(line.charAt(i + 1))
+                && (sep1 == '.' || sep1 == '-') && isDigit(line.charAt(i + 3)) && isDigit(line.charAt(i + 4))
+                && (sep2 == '.' || sep2 == '-') && isDigit(line.charAt(i + 6)) && isDigit(line.charAt(i + 7))
+                && isDigit(line.charAt(i + 8)) && isDigit(line.charAt(i + 9));
+    }
+
+    // \d+\.\d{2} və ya minlik qrupları ilə \d{1,3}([ ,\u00A0]\d{3})+\.\d{2}: uyğun gəlirsə məbləğin sonunu
+    // (iki onluq rəqəmdən sonra), əks halda -1 qaytarır. Qruplar yalnız onluq hissə ilə bitəndə qəbul olunur.
+    private static int amountEnd(String line, int i) {
+        int j = digitsEnd(line, i);
+        if (j - i <= 3) {
+            int k = j;
+            while (k < line.length() && isGroupSeparator(line.charAt(k)) && digitsEnd(line, k + 1) == k + 4) {
+                k += 4;
+            }
+            if (k > j && hasDecimalsAt(line, k)) {
+                return k + 3;
+            }
+        }
+        return hasDecimalsAt(line, j) ? j + 3 : -1;
+    }
+
+    private static int digitsEnd(String line, int i) {
+        int j = i;
+        while (j < line.length() && isDigit(line.charAt(j))) {
+            j++;
+        }
+        return j;
+    }
+
+    private static boolean hasDecimalsAt(String line, int j) {
+        return j + 2 < line.length() && line.charAt(j) == '.'
+                && isDigit(line.charAt(j + 1)) && isDigit(line.charAt(j + 2));
+    }
+
+    static boolean isGroupSeparator(char c) {
+        return c == ' ' || c == ',' || c == '\u00A0';
+    }
+
+    private static boolean isIbanAt(String line, int i) {
+        if (i + 9 > line.length()) {
+            return false;
+        }
+        for (int k = 0; k < 8; k++) {
+            char c = line.charAt(i + k);
+            boolean expectDigit = k == 2 || k == 3;
+            if (expectDigit ? !isDigit(c) : (c < 'A' || c > 'Z')) {
+                return false;
+            }
+        }
+        return isDigit(line.charAt(i + 8));
+    }
+
+    private static boolean isKeywordWord(String line, int start, int end) {
+        int wordLength = end - start;
+        if (wordLength < MIN_KEYWORD_LENGTH) {
+            return false;
+        }
+        for (String keyword : TABLE_KEYWORDS) {
+            int keywordLength = keyword.length();
+            if (keywordLength > wordLength) {
+                continue;
+            }
+            if (wordLength == keywordLength && line.regionMatches(true, start, keyword, 0, keywordLength)) {
+                return true;
+            }
+            for (int k = start; k + keywordLength <= end; k++) {
+                if (line.regionMatches(k, keyword, 0, keywordLength)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.pdfprocessorservice.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// LineClassifier-in bir sətir üçün nəticəsi
+@Getter
+@AllArgsConstructor
+public class LineFeatures {
+    private final boolean dateAtStart;  // Sətir tarixlə başlayır
+    private final boolean amountLike;   // Sətirdə [-+]?\d+\.\d{2} var (nöqtəli tarix də daxil)
+    private final boolean link;
+    private final boolean iban;
+    private final boolean header;       // Cədvəl başlığına bənzəyir
+    private final List<String> dates;   // Tapılmış tarixlər, sətirdəki sıra ilə
+    private final List<String> amounts; // Tarixlərdən kənar məbləğlər, işarə və minlik ayırıcıları ilə birlikdə
+
+    public boolean hasDate() {
+        return !dates.isEmpty();
+    }
+
+    // Tarix + məbləğ: əməliyyat sətri kimi sayılır
+    public boolean isTransactionLike() {
+        return hasDate() && amountLike;
+    }
+
+    // PDFBox yolunda yeni cədvəl sətrini başladan sətir
+    public boolean startsRow() {
+        return dateAtStart || link || amountLike;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.pdfprocessorservice.util;
+
+import com.example.pdfprocessorservice.entity.ExtractionStrategy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Bir səhifənin mətn qatının yoxlanış nəticəsi
+@Getter
+@AllArgsConstructor
+public class PageProbe {
+    private final int pageIndex;
+    private final ExtractionStrategy strategy;
+    private final String text;       // Mətn qatından çıxarılmış mətn
+    private final int glyphCount;    // Səhifədə göstərilən bütün qlifler
+    private final int mappedGlyphs;  // Düzgün Unicode-a çevrilən qlifler
+}
@@ -0,0 +1,26 @@
+package com.example.pdfprocessorservice.util;
+
+import com.example.pdfprocessorservice.entity.PdfEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Emal olunmuş, lakin hələ bazaya yazılmamış PDF; və ya artıq mövcud olan dublikat
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PreparedPdf {
+    private final PdfEntity entity;   // Yazılmalı yeni PdfEntity (dublikatda null)
+    private final PdfEntity existing; // Bazada artıq olan PdfEntity (dublikat deyilsə null)
+
+    public static PreparedPdf of(PdfEntity entity) {
+        return new PreparedPdf(entity, null);
+    }
+
+    public static PreparedPdf duplicateOf(PdfEntity existing) {
+        return new PreparedPdf(null, existing);
+    }
+
+    public boolean isDuplicate() {
+        return existing != null;
+    }
+}
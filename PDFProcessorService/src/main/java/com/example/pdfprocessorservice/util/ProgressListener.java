@@ -0,0 +1,10 @@
+package com.example.pdfprocessorservice.util;
+
+// PDF emalının gedişatı haqqında bildiriş (asinxron iş API-si üçün)
+@FunctionalInterface
+public interface ProgressListener {
+
+    ProgressListener NONE = (completedPages, totalPages) -> { };
+
+    void onPagesCompleted(int completedPages, int totalPages);
+}
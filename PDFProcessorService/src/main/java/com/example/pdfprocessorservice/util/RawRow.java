@@ -0,0 +1,12 @@
+package com.example.pdfprocessorservice.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Birləşdirilmiş, lakin hələ təhlil olunmamış cədvəl sətri və başladığı səhifə (0-dan)
+@Getter
+@AllArgsConstructor
+public class RawRow {
+    private final String text;
+    private final int page;
+}
@@ -0,0 +1,40 @@
+package com.example.pdfprocessorservice.util;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Diskə bir dəfə yazılmış yüklənmiş fayl; bağlandıqda müvəqqəti fayl silinir
+@Getter
+@Slf4j
+public class SpooledUpload implements AutoCloseable {
+
+    private final Path path;
+    private final String originalFilename;
+    private final long size;
+    private final String sha256; // Faylın baytları üzərindən SHA-256 (diskə yazılarkən hesablanır)
+
+    public SpooledUpload(Path path, String originalFilename, long size, String sha256) {
+        this.path = path;
+        this.originalFilename = originalFilename;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Müvəqqəti fayl silinmədi {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.pdfprocessorservice.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Bank çıxarışının cədvəl quruluşu: başlıq ankerləri, sətir başlanğıcı, cədvəlin sonu və sütun sırası.
+// Şablonlar statement-templates.json-dan yüklənir və regex-lər yalnız bir dəfə kompilyasiya olunur.
+@Getter
+@AllArgsConstructor
+public class StatementTemplate {
+
+    // Tarix olan sətir əməliyyatdır, başlıq deyil
+    private static final Pattern DATE = Pattern.compile("\\d{2}[.-]\\d{2}[.-]\\d{4}");
+
+    private final String id;
+    private final List<Pattern> headerAnchors;
+    private final int minHeaderMatches;   // Sətrin başlıq sayılması üçün tapılmalı anker sayı
+    private final Pattern rowStart;       // Yeni əməliyyat sətrini başladan sətir (bütün sətir uyğun gəlməlidir)
+    private final List<Pattern> endMarkers;
+    private final List<String> columns;
+
+    public boolean isHeader(String line) {
+        if (DATE.matcher(line).find()) {
+            return false;
+        }
+        int matches = 0;
+        for (Pattern anchor : headerAnchors) {
+            if (anchor.matcher(line).find() && ++matches >= minHeaderMatches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isRowStart(String line) {
+        return rowStart.matcher(line).matches();
+    }
+
+    public boolean isTableEnd(String line) {
+        for (Pattern marker : endMarkers) {
+            if (marker.matcher(line).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.pdfprocessorservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// OCR səhifə mətnlərini səhifə sırası ilə qəbul edib əməliyyat sətirlərinə birləşdirir.
+// Şablon ilk tapılan başlıq sətrinə görə seçilir; ən azı bir sətir birləşdirildikdən sonra cədvəlin sonu
+// görünəndə accept true qaytarır ki, qalan səhifələr render və OCR edilməsin (üz səhifədəki "Cəmi" xülasəsi
+// cədvəli bitirməsin).
+// Qarışıq sənəddə TEXT_LAYER səhifələrinin mətni PDFBox düzümündədir (bir əməliyyat adətən bir sətirdə), şablonların
+// rowStart-ı isə Tesseract düzümü üçün yazılıb. Belə səhifələrdə sətirlər PDFBox yolunun LineClassifier qaydaları
+// ilə ayrılır; şablon yalnız seçim, təkrarlanan başlıq və cədvəlin sonu üçün istifadə olunur.
+@Slf4j
+public class TableStitcher {
+
+    private final List<StatementTemplate> templates;
+    private final List<RawRow> rows = new ArrayList<>();
+    private final StringBuilder currentRow = new StringBuilder();
+    private StatementTemplate template;
+    private boolean finished;
+    private int page = -1;
+    private int currentRowPage;
+
+    public TableStitcher(List<StatementTemplate> templates) {
+        this.templates = templates;
+    }
+
+    public boolean accept(String pageText) {
+        return accept(pageText, false);
+    }
+
+    // textLayer: səhifə mətni OCR-dan yox, PDFBox mətn qatından gəlir
+    public boolean accept(String pageText, boolean textLayer) {
+        if (finished) {
+            return true;
+        }
+        page++;
+        for (String rawLine : pageText.split("\n")) {
+            String line = rawLine.trim();
+
+            // Cədvəlin başlanğıcını tap və şablonu seç
+            if (template == null) {
+                template = findTemplate(line);
+                if (template != null) {
+                    log.info("Çıxarış şablonu seçildi: {}", template.getId());
+                }
+                continue;
+            }
+
+            LineFeatures features = textLayer ? LineClassifier.classify(line) : null;
+            boolean rowStart = textLayer ? features.startsRow() : template.isRowStart(line);
+
+            // Cədvəlin sonu ("Cəmi -40.00" mətn qatında məbləğ sətri kimi yeni sətir başlatmasın deyə əvvəlcə)
+            if (hasRows() && template.isTableEnd(line)) {
+                flushRow();
+                finished = true;
+                return true;
+            }
+
+            // Sətir başlanğıcı başlıqdan əvvəl yoxlanılır: başlıq sözlərini ehtiva edən əməliyyat itməsin
+            if (rowStart) { // Yeni əməliyyat sətri
+                flushRow();
+                currentRow.append(line);
+                currentRowPage = page;
+            } else if (template.isHeader(line) || textLayer && features.isHeader()) { // Təkrarlanan başlıq
+                continue;
+            } else if (currentRow.length() > 0 && !line.isEmpty()
+                    && !(textLayer && LineClassifier.isPageFurniture(line, features))) { // Əvvəlki sətrin davamı
+                currentRow.append(" ").append(line);
+            }
+        }
+        return false;
+    }
+
+    public List<RawRow> finish() {
+        flushRow();
+        return rows;
+    }
+
+    public Optional<StatementTemplate> getTemplate() {
+        return Optional.ofNullable(template);
+    }
+
+    private StatementTemplate findTemplate(String line) {
+        for (StatementTemplate candidate : templates) {
+            if (candidate.isHeader(line)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasRows() {
+        return !rows.isEmpty() || currentRow.length() > 0;
+    }
+
+    private void flushRow() {
+        if (currentRow.length() > 0) {
+            rows.add(new RawRow(currentRow.toString(), currentRowPage));
+            currentRow.setLength(0);
+        }
+    }
+}
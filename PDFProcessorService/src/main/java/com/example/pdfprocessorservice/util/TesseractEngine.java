@@ -0,0 +1,69 @@
+package com.example.pdfprocessorservice.util;
+
+import com.sun.jna.Pointer;
+import net.sourceforge.tess4j.ITessAPI.TessBaseAPI;
+import net.sourceforge.tess4j.TessAPI1;
+import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.util.ImageIOHelper;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+
+// Bir dəfə başladılan və təkrar istifadə olunan Tesseract mühərriki.
+// Tesseract sinfi hər doOCR çağırışında dil modellərini yenidən yükləyir, bu sinif isə onları yaddaşda saxlayır.
+// Thread-safe deyil: eyni anda yalnız bir thread istifadə etməlidir (TesseractPool bunu təmin edir).
+public class TesseractEngine implements AutoCloseable {
+
+    private final TessBaseAPI handle;
+    private final String language;
+    private final int dpi;
+
+    public TesseractEngine(String dataPath, String language, int pageSegMode, int dpi) throws TesseractException {
+        this.handle = TessAPI1.TessBaseAPICreate();
+        this.language = language;
+        this.dpi = dpi;
+        if (TessAPI1.TessBaseAPIInit3(handle, dataPath, language) != 0) {
+            TessAPI1.TessBaseAPIDelete(handle);
+            throw new TesseractException("Tesseract mühərriki başladıla bilmədi: " + language);
+        }
+        TessAPI1.TessBaseAPISetPageSegMode(handle, pageSegMode);
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public String doOCR(BufferedImage image, Rectangle region) throws TesseractException {
+        try {
+            ByteBuffer buffer = ImageIOHelper.convertImageData(image);
+            int bpp = image.getColorModel().getPixelSize();
+            int bytesPerLine = (int) Math.ceil(image.getWidth() * bpp / 8.0);
+            TessAPI1.TessBaseAPISetImage(handle, buffer, image.getWidth(), image.getHeight(), bpp / 8, bytesPerLine);
+            TessAPI1.TessBaseAPISetSourceResolution(handle, dpi);
+            if (region != null && !region.isEmpty()) {
+                TessAPI1.TessBaseAPISetRectangle(handle, region.x, region.y, region.width, region.height);
+            }
+
+            Pointer textPointer = TessAPI1.TessBaseAPIGetUTF8Text(handle);
+            if (textPointer == null) {
+                return "";
+            }
+            try {
+                return textPointer.getString(0, "UTF-8");
+            } finally {
+                TessAPI1.TessDeleteText(textPointer);
+            }
+        } catch (RuntimeException e) {
+            throw new TesseractException(e);
+        } finally {
+            TessAPI1.TessBaseAPIClear(handle);
+        }
+    }
+
+    @Override
+    public void close() {
+        TessAPI1.TessBaseAPIEnd(handle);
+        TessAPI1.TessBaseAPIDelete(handle);
+    }
+}
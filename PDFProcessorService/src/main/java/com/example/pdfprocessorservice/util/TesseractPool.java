@@ -0,0 +1,124 @@
+package com.example.pdfprocessorservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.TesseractException;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Əvvəlcədən başladılmış Tesseract mühərriklərinin məhdud hovuzu.
+// Mühərriklər lazım olduqca (maksimum poolSize qədər) yaradılır və sonra təkrar istifadə olunur.
+@Slf4j
+public class TesseractPool implements AutoCloseable {
+
+    private final String dataPath;
+    private final String language;
+    private final int pageSegMode;
+    private final int dpi;
+    private final int poolSize;
+    private final long borrowTimeoutMillis;
+
+    private final BlockingQueue<TesseractEngine> idleEngines;
+    private final AtomicInteger createdEngines = new AtomicInteger();
+
+    public TesseractPool(String dataPath, String language, int pageSegMode, int dpi,
+                         int poolSize, long borrowTimeoutMillis) {
+        this.dataPath = dataPath;
+        this.language = language;
+        this.pageSegMode = pageSegMode;
+        this.dpi = dpi;
+        this.poolSize = poolSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleEngines = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    // Mühərrikləri əvvəlcədən yükləyir ki, ilk sorğular model yükləməsini gözləməsin
+    public void prewarm() {
+        try {
+            while (createdEngines.get() < poolSize) {
+                TesseractEngine engine = tryCreateEngine();
+                if (engine == null) {
+                    break;
+                }
+                idleEngines.offer(engine);
+            }
+            log.info("Tesseract hovuzu hazırdır: {} mühərrik ({})", createdEngines.get(), language);
+        } catch (TesseractException | RuntimeException | LinkageError e) {
+            log.error("Tesseract hovuzu əvvəlcədən yüklənə bilmədi: {}", e.getMessage());
+        }
+    }
+
+    public String doOCR(BufferedImage image) throws TesseractException {
+        return doOCR(image, null);
+    }
+
+    public String doOCR(BufferedImage image, Rectangle region) throws TesseractException {
+        TesseractEngine engine = borrow();
+        try {
+            return engine.doOCR(image, region);
+        } finally {
+            idleEngines.offer(engine);
+        }
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getIdleCount() {
+        return idleEngines.size() + (poolSize - createdEngines.get());
+    }
+
+    private TesseractEngine borrow() throws TesseractException {
+        TesseractEngine engine = idleEngines.poll();
+        if (engine != null) {
+            return engine;
+        }
+        engine = tryCreateEngine();
+        if (engine != null) {
+            return engine;
+        }
+        try {
+            engine = idleEngines.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TesseractException("Tesseract mühərriki gözlənilərkən kəsildi", e);
+        }
+        if (engine == null) {
+            throw new TesseractException("Boş Tesseract mühərriki " + borrowTimeoutMillis + " ms ərzində tapılmadı");
+        }
+        return engine;
+    }
+
+    private TesseractEngine tryCreateEngine() throws TesseractException {
+        int created = createdEngines.get();
+        while (created < poolSize) {
+            if (createdEngines.compareAndSet(created, created + 1)) {
+                try {
+                    return new TesseractEngine(dataPath, language, pageSegMode, dpi);
+                } catch (TesseractException | RuntimeException | Error e) {
+                    createdEngines.decrementAndGet();
+                    throw e;
+                }
+            }
+            created = createdEngines.get();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        TesseractEngine engine;
+        while ((engine = idleEngines.poll()) != null) {
+            engine.close();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.pdfprocessorservice.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Hər dil dəsti (məs. "eng+aze") üçün ayrıca Tesseract hovuzu.
+// Dil dəsti sənəd üzrə seçilir (OcrLanguageSelector); mühərriklər hər hovuzda ayrıca isti saxlanılır.
+public class TesseractPools implements AutoCloseable {
+
+    private final Map<String, TesseractPool> pools = new LinkedHashMap<>();
+    private final String defaultLanguages;
+
+    public TesseractPools(String defaultLanguages) {
+        this.defaultLanguages = defaultLanguages;
+    }
+
+    public void add(TesseractPool pool) {
+        pools.putIfAbsent(pool.getLanguage(), pool);
+    }
+
+    public TesseractPool get(String languages) {
+        TesseractPool pool = pools.get(languages);
+        if (pool == null) {
+            throw new IllegalArgumentException("Bu dil dəsti üçün Tesseract hovuzu yoxdur: " + languages);
+        }
+        return pool;
+    }
+
+    // Dil müəyyən edilmədikdə istifadə olunan (ən geniş) dəst
+    public String getDefaultLanguages() {
+        return defaultLanguages;
+    }
+
+    public Collection<TesseractPool> getPools() {
+        return Collections.unmodifiableCollection(pools.values());
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(TesseractPool::close);
+    }
+}
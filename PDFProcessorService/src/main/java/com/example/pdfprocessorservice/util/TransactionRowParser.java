@@ -0,0 +1,187 @@
+package com.example.pdfprocessorservice.util;
+
+import com.example.pdfprocessorservice.entity.TransactionRow;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Birləşdirilmiş cədvəl sətirlərini tipli əməliyyatlara çevirir.
+// Sətir quruluşu: tarix [saat] təsvir məbləğlər...; məbləğlər sütun sırasına görə sondan təyin olunur.
+// Confidence sahələrin tamlığı və balansın əvvəlki sətirlə uyğunluğu əsasında hesablanır.
+public final class TransactionRowParser {
+
+    private static final List<String> AMOUNT_COLUMNS = List.of("amount", "fee", "vat", "balance");
+    private static final BigDecimal BALANCE_TOLERANCE = new BigDecimal("0.01");
+
+    private TransactionRowParser() {
+    }
+
+    // columns: şablonun sütun sırası; null və ya boşdursa məbləğ sayına görə təxmin edilir
+    public static List<TransactionRow> parse(List<RawRow> rawRows, List<String> columns) {
+        List<String> amountColumns = amountColumns(columns);
+        List<TransactionRow> rows = new ArrayList<>(rawRows.size());
+        TransactionRow previous = null;
+
+        for (RawRow rawRow : rawRows) {
+            TransactionRow row = parseRow(rawRow, amountColumns);
+            row.setRowIndex(rows.size());
+            row.setConfidence(confidence(row, previous));
+            rows.add(row);
+            previous = row;
+        }
+        return rows;
+    }
+
+    private static TransactionRow parseRow(RawRow rawRow, List<String> amountColumns) {
+        String line = rawRow.getText();
+        LineFeatures features = LineClassifier.classify(line);
+        TransactionRow row = TransactionRow.builder().page(rawRow.getPage()).build();
+
+        int descriptionStart = 0;
+        if (features.hasDate()) {
+            String date = features.getDates().get(0);
+            int dateEnd = line.indexOf(date) + date.length();
+            LocalTime time = LocalTime.MIDNIGHT;
+            int timeEnd = timeEnd(line, dateEnd);
+            if (timeEnd > 0) {
+                time = parseTime(line.substring(dateEnd, timeEnd).trim());
+                dateEnd = timeEnd;
+            }
+            LocalDate day = parseDate(date);
+            row.setOccurredAt(day == null ? null : day.atTime(time));
+            descriptionStart = dateEnd;
+        }
+
+        // Məbləğlər sondan sütunlara paylanır: [..., amount, fee, vat, balance]
+        List<String> amounts = features.getAmounts();
+        int used = Math.min(amounts.size(), amountColumns.size());
+        List<String> columns = used == amountColumns.size() ? amountColumns : fallbackColumns(used);
+        int descriptionEnd = line.length();
+        int searchEnd = line.length();
+        for (int i = used - 1; i >= 0; i--) {
+            String token = amounts.get(amounts.size() - used + i);
+            int position = line.lastIndexOf(token, searchEnd - token.length());
+            if (position >= descriptionStart) {
+                descriptionEnd = position;
+                searchEnd = position;
+            }
+            setAmount(row, columns.get(i), toAmount(token));
+        }
+
+        if (descriptionEnd > descriptionStart) {
+            row.setDescription(line.substring(descriptionStart, descriptionEnd).trim());
+        }
+        return row;
+    }
+
+    // "-1 250.00" / "+1,250.00" -> -1250.00 / 1250.00
+    private static BigDecimal toAmount(String token) {
+        StringBuilder digits = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c != '+' && !LineClassifier.isGroupSeparator(c)) {
+                digits.append(c);
+            }
+        }
+        return new BigDecimal(digits.toString());
+    }
+
+    private static List<String> amountColumns(List<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            return AMOUNT_COLUMNS;
+        }
+        List<String> amountColumns = columns.stream().filter(AMOUNT_COLUMNS::contains).toList();
+        return amountColumns.isEmpty() ? AMOUNT_COLUMNS : amountColumns;
+    }
+
+    // Şablonda gözləniləndən az məbləğ: ilk məbləğ əməliyyat, sonuncu balansdır
+    private static List<String> fallbackColumns(int count) {
+        return switch (count) {
+            case 0 -> List.of();
+            case 1 -> List.of("amount");
+            case 2 -> List.of("amount", "balance");
+            default -> List.of("amount", "fee", "balance");
+        };
+    }
+
+    private static void setAmount(TransactionRow row, String column, BigDecimal value) {
+        switch (column) {
+            case "amount" -> row.setAmount(value);
+            case "fee" -> row.setFee(value);
+            case "vat" -> row.setVat(value);
+            case "balance" -> row.setBalance(value);
+            default -> {
+            }
+        }
+    }
+
+    // Tarixdən sonra gələn HH:MM və ya HH:MM:SS; tapılmasa -1
+    private static int timeEnd(String line, int from) {
+        int i = from;
+        while (i < line.length() && line.charAt(i) == ' ') {
+            i++;
+        }
+        int end = i;
+        while (end < line.length() && (Character.isDigit(line.charAt(end)) || line.charAt(end) == ':')) {
+            end++;
+        }
+        int length = end - i;
+        return (length == 5 || length == 8) && line.charAt(i + 2) == ':' ? end : -1;
+    }
+
+    private static LocalTime parseTime(String time) {
+        try {
+            return LocalTime.parse(time.length() == 5 ? time + ":00" : time);
+        } catch (DateTimeParseException e) {
+            return LocalTime.MIDNIGHT;
+        }
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.of(Integer.parseInt(date.substring(6, 10)),
+                    Integer.parseInt(date.substring(3, 5)), Integer.parseInt(date.substring(0, 2)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static double confidence(TransactionRow row, TransactionRow previous) {
+        double confidence = 1.0;
+        if (row.getOccurredAt() == null) {
+            confidence -= 0.3;
+        }
+        if (row.getAmount() == null) {
+            confidence -= 0.3;
+        }
+        if (row.getDescription() == null || row.getDescription().isEmpty()) {
+            confidence -= 0.2;
+        }
+        // Balans davamlılığı: çıxarış həm köhnədən yeniyə, həm də yenidən köhnəyə sıralana bilər
+        if (previous != null && previous.getBalance() != null && row.getBalance() != null && row.getAmount() != null) {
+            boolean consistent = balanceMatches(previous.getBalance(), row, row.getBalance())
+                    || previous.getAmount() != null && balanceMatches(row.getBalance(), previous, previous.getBalance());
+            if (!consistent) {
+                confidence -= 0.2;
+            }
+        }
+        return Math.max(0.0, Math.round(confidence * 100) / 100.0);
+    }
+
+    // from + məbləğ (komissiya/ƏDV çıxılmaqla və ya onlarsız) = to
+    private static boolean balanceMatches(BigDecimal from, TransactionRow row, BigDecimal to) {
+        BigDecimal expected = from.add(row.getAmount());
+        BigDecimal charges = nullToZero(row.getFee()).add(nullToZero(row.getVat()));
+        return expected.subtract(to).abs().compareTo(BALANCE_TOLERANCE) <= 0
+                || expected.subtract(charges).subtract(to).abs().compareTo(BALANCE_TOLERANCE) <= 0;
+    }
+
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
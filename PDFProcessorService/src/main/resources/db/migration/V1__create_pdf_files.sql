@@ -0,0 +1,18 @@
+-- pdf_files cədvəli (əvvəllər hibernate ddl-auto=create ilə yaradılırdı)
+CREATE TABLE IF NOT EXISTS pdf_files
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    file_name       VARCHAR(255) NOT NULL,
+    upload_date     TIMESTAMP(6) NOT NULL,
+    extracted_text  TEXT,
+    minio_path      VARCHAR(255),
+    metadata        TEXT,
+    hash            VARCHAR(64),
+    file_hash       VARCHAR(64),
+    page_strategies TEXT
+);
+
+-- ddl-auto=create ilə yaradılmış mövcud bazada cədvəl artıq var və yuxarıdakı CREATE heç nə etmir:
+-- baseline-dan sonra əlavə olunmuş sütunlar ayrıca əlavə olunur
+ALTER TABLE pdf_files ADD COLUMN IF NOT EXISTS file_hash VARCHAR(64);
+ALTER TABLE pdf_files ADD COLUMN IF NOT EXISTS page_strategies TEXT;
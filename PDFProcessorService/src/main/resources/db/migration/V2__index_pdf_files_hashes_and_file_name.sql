@@ -0,0 +1,13 @@
+-- Köhnə bazada unikal indeks olmadan eyni hash-li sətirlər ola bilər: ən köhnə sətir hash-i saxlayır,
+-- qalanlarında hash silinir (sənədlər qalır, sadəcə dublikat yoxlamasında iştirak etmir)
+UPDATE pdf_files f SET file_hash = NULL
+WHERE file_hash IS NOT NULL
+  AND EXISTS (SELECT 1 FROM pdf_files o WHERE o.file_hash = f.file_hash AND o.id < f.id);
+UPDATE pdf_files f SET hash = NULL
+WHERE hash IS NOT NULL
+  AND EXISTS (SELECT 1 FROM pdf_files o WHERE o.hash = f.hash AND o.id < f.id);
+
+-- Dedupe sorğuları (findByFileHash, findByHash) və fayl adına görə axtarış indeksdən istifadə edir
+CREATE UNIQUE INDEX IF NOT EXISTS ux_pdf_files_file_hash ON pdf_files (file_hash);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_pdf_files_hash ON pdf_files (hash);
+CREATE INDEX IF NOT EXISTS ix_pdf_files_file_name ON pdf_files (file_name);
@@ -0,0 +1,2 @@
+ALTER TABLE pdf_files ADD COLUMN IF NOT EXISTS status VARCHAR(32) NOT NULL DEFAULT 'PROCESSED';
+UPDATE pdf_files SET status = 'ANALYZED' WHERE metadata IS NOT NULL;
@@ -0,0 +1,17 @@
+-- Çıxarışdan təhlil olunmuş əməliyyat sətirləri (AIService mətni yenidən təhlil etmir)
+CREATE TABLE IF NOT EXISTS pdf_transaction_rows (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pdf_id      BIGINT         NOT NULL REFERENCES pdf_files (id) ON DELETE CASCADE,
+    row_index   INTEGER        NOT NULL,
+    page        INTEGER        NOT NULL,
+    occurred_at TIMESTAMP(6),
+    description TEXT,
+    amount      NUMERIC(19, 2),
+    fee         NUMERIC(19, 2),
+    vat         NUMERIC(19, 2),
+    balance     NUMERIC(19, 2),
+    confidence  DOUBLE PRECISION NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_pdf_transaction_rows_pdf_row ON pdf_transaction_rows (pdf_id, row_index);
+CREATE INDEX IF NOT EXISTS ix_pdf_transaction_rows_occurred_at ON pdf_transaction_rows (occurred_at);
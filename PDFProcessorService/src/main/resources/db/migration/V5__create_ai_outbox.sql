@@ -0,0 +1,21 @@
+-- AIService-ə göndəriləcək təhlil sorğuları; PdfEntity ilə eyni tranzaksiyada yazılır
+CREATE TABLE IF NOT EXISTS ai_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pdf_id          BIGINT       NOT NULL REFERENCES pdf_files (id) ON DELETE CASCADE,
+    status          VARCHAR(16)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    locked_until    TIMESTAMP(6),
+    last_error      TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_ai_outbox_status_next_attempt ON ai_outbox (status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS ix_ai_outbox_pdf_id ON ai_outbox (pdf_id);
+
+-- Metadata-sı hələ yazılmamış sənədlər də növbəyə salınır
+INSERT INTO ai_outbox (pdf_id, status, attempts, next_attempt_at, created_at, updated_at)
+SELECT id, 'PENDING', 0, now(), now(), now()
+FROM pdf_files
+WHERE status = 'PROCESSED';
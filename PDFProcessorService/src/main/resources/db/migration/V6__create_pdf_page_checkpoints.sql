@@ -0,0 +1,11 @@
+-- Səhifə üzrə OCR nəticələri (faylın hash-i ilə); yarımçıq emal təkrarlandıqda hazır səhifələr yenidən OCR olunmur
+CREATE TABLE IF NOT EXISTS pdf_page_checkpoints (
+    file_hash  VARCHAR(64)  NOT NULL,
+    page_index INTEGER      NOT NULL,
+    languages  VARCHAR(64)  NOT NULL,
+    text       TEXT         NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (file_hash, page_index)
+);
+
+CREATE INDEX IF NOT EXISTS ix_pdf_page_checkpoints_created_at ON pdf_page_checkpoints (created_at);
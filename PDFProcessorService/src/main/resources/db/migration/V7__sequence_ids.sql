@@ -0,0 +1,20 @@
+-- IDENTITY əvəzinə 50-lik artımla sequence: Hibernate id-ləri bloklarla (pooled-lo) götürür və insert-ləri batch edir.
+-- Sequence mövcud ən böyük id-dən sonra başlayır; sütunun default-u da həmin sequence olur ki,
+-- əl ilə (SQL) edilən insert-lər Hibernate bloklarından kənarda qalsın.
+CREATE SEQUENCE IF NOT EXISTS pdf_files_seq INCREMENT BY 50;
+SELECT setval('pdf_files_seq', COALESCE((SELECT MAX(id) FROM pdf_files), 0) + 1, false);
+ALTER TABLE pdf_files ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE pdf_files ALTER COLUMN id SET DEFAULT nextval('pdf_files_seq');
+ALTER SEQUENCE pdf_files_seq OWNED BY pdf_files.id;
+
+CREATE SEQUENCE IF NOT EXISTS pdf_transaction_rows_seq INCREMENT BY 50;
+SELECT setval('pdf_transaction_rows_seq', COALESCE((SELECT MAX(id) FROM pdf_transaction_rows), 0) + 1, false);
+ALTER TABLE pdf_transaction_rows ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE pdf_transaction_rows ALTER COLUMN id SET DEFAULT nextval('pdf_transaction_rows_seq');
+ALTER SEQUENCE pdf_transaction_rows_seq OWNED BY pdf_transaction_rows.id;
+
+CREATE SEQUENCE IF NOT EXISTS ai_outbox_seq INCREMENT BY 50;
+SELECT setval('ai_outbox_seq', COALESCE((SELECT MAX(id) FROM ai_outbox), 0) + 1, false);
+ALTER TABLE ai_outbox ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE ai_outbox ALTER COLUMN id SET DEFAULT nextval('ai_outbox_seq');
+ALTER SEQUENCE ai_outbox_seq OWNED BY ai_outbox.id;
@@ -0,0 +1,93 @@
+package com.example.pdfprocessorservice.util;
+
+import com.example.pdfprocessorservice.service.StatementTemplateRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Paylanan statement-templates.json ilə: Tesseract və PDFBox düzümlü səhifələr eyni stitcher-dən keçir
+class TableStitcherTest {
+
+    private static List<StatementTemplate> templates;
+
+    @BeforeAll
+    static void loadTemplates() throws IOException {
+        StatementTemplateRegistry registry = new StatementTemplateRegistry(new ObjectMapper());
+        ReflectionTestUtils.setField(registry, "location", new ClassPathResource("statement-templates.json"));
+        registry.load();
+        templates = registry.getTemplates();
+    }
+
+    @Test
+    void stitchesOcrAndTextLayerPagesOfMixedDocument() {
+        TableStitcher stitcher = new TableStitcher(templates);
+
+        // Tesseract: tarix ayrıca sətirdə, təsvir və məbləğlər növbəti sətirdə
+        assertFalse(stitcher.accept("""
+                Hesab çıxarışı
+                Tarix Təyinat Məbləğ Komissiya ƏDV Balans
+                05-03-2024
+                Wolt -12.00 0.00 0.00 988.00
+                """));
+        // PDFBox mətn qatı: bütün əməliyyat bir sətirdə, təsvirin davamı növbəti sətirdə
+        assertTrue(stitcher.accept("""
+                Tarix Təyinat Məbləğ Komissiya ƏDV Balans
+                06-03-2024 Bolt taksi -8.00 0.00 0.00 980.00
+                Bakı
+                Page 2 of 3
+                07-03-2024 Bravo -20.00 0.00 0.00 960.00
+                Cəmi -40.00
+                """, true));
+
+        List<RawRow> rows = stitcher.finish();
+        assertEquals("az-date-description-amount-fee-vat-balance", stitcher.getTemplate().orElseThrow().getId());
+        assertEquals(List.of(
+                "05-03-2024 Wolt -12.00 0.00 0.00 988.00",
+                "06-03-2024 Bolt taksi -8.00 0.00 0.00 980.00 Bakı",
+                "07-03-2024 Bravo -20.00 0.00 0.00 960.00"), rows.stream().map(RawRow::getText).toList());
+        assertEquals(List.of(0, 1, 1), rows.stream().map(RawRow::getPage).toList());
+    }
+
+    @Test
+    void keepsGenericRowsThatContainHeaderWords() {
+        TableStitcher stitcher = new TableStitcher(templates);
+
+        stitcher.accept("""
+                Kart hesabı üzrə əməliyyatlar
+                Cəmi mədaxil 1 000.00
+                Tarix Əməliyyat Məbləğ Balans
+                05.03.2024 Kart əməliyyatı Wolt -12.00 988.00
+                Tarix Əməliyyat Məbləğ Balans
+                06.03.2024 Kart əməliyyatı Bolt -8.00 980.00
+                """);
+
+        assertEquals("generic", stitcher.getTemplate().orElseThrow().getId());
+        assertEquals(List.of(
+                "05.03.2024 Kart əməliyyatı Wolt -12.00 988.00",
+                "06.03.2024 Kart əməliyyatı Bolt -8.00 980.00"), stitcher.finish().stream().map(RawRow::getText).toList());
+    }
+
+    @Test
+    void ignoresEndMarkerBeforeFirstRow() {
+        TableStitcher stitcher = new TableStitcher(templates);
+
+        assertFalse(stitcher.accept("""
+                Tarix Əməliyyat Məbləğ Balans
+                Cəmi dövriyyə 1 250.00
+                """));
+        assertTrue(stitcher.accept("""
+                05.03.2024 Wolt -12.00 988.00
+                Yekun 988.00
+                """));
+        assertEquals(1, stitcher.finish().size());
+    }
+}
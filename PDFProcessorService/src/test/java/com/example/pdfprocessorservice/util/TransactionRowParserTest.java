@@ -0,0 +1,84 @@
+package com.example.pdfprocessorservice.util;
+
+import com.example.pdfprocessorservice.entity.TransactionRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TransactionRowParserTest {
+
+    private static final List<String> FULL_COLUMNS = List.of("date", "description", "amount", "fee", "vat", "balance");
+    private static final List<String> GENERIC_COLUMNS = List.of("date", "description", "amount", "balance");
+
+    @Test
+    void parsesDateTimeDescriptionAndAllAmountColumns() {
+        TransactionRow row = parseOne("05-03-2024 14:25 Kartdan karta köçürmə -12.50 0.25 0.05 987.20", FULL_COLUMNS);
+
+        assertEquals(LocalDateTime.of(2024, 3, 5, 14, 25), row.getOccurredAt());
+        assertEquals("Kartdan karta köçürmə", row.getDescription());
+        assertEquals(new BigDecimal("-12.50"), row.getAmount());
+        assertEquals(new BigDecimal("0.25"), row.getFee());
+        assertEquals(new BigDecimal("0.05"), row.getVat());
+        assertEquals(new BigDecimal("987.20"), row.getBalance());
+    }
+
+    @Test
+    void keepsThousandsGroupsAndSign() {
+        TransactionRow row = parseOne("05.03.2024 Maaş köçürməsi -1 250.00 12 345.67", GENERIC_COLUMNS);
+
+        assertEquals("Maaş köçürməsi", row.getDescription());
+        assertEquals(new BigDecimal("-1250.00"), row.getAmount());
+        assertEquals(new BigDecimal("12345.67"), row.getBalance());
+    }
+
+    @Test
+    void acceptsCommaAndNoBreakSpaceGroupSeparators() {
+        TransactionRow comma = parseOne("05.03.2024 Wolt +1,250.00 1,234,567.89", GENERIC_COLUMNS);
+        TransactionRow noBreakSpace = parseOne("05.03.2024 Wolt -1\u00A0250.00 2\u00A0000.00", GENERIC_COLUMNS);
+
+        assertEquals(new BigDecimal("1250.00"), comma.getAmount());
+        assertEquals(new BigDecimal("1234567.89"), comma.getBalance());
+        assertEquals(new BigDecimal("-1250.00"), noBreakSpace.getAmount());
+        assertEquals(new BigDecimal("2000.00"), noBreakSpace.getBalance());
+    }
+
+    @Test
+    void doesNotMergeNumberWithMoreThanThreeDigitsIntoAmount() {
+        TransactionRow row = parseOne("05.03.2024 Ref 1234 250.00", List.of("date", "description", "amount"));
+
+        assertEquals("Ref 1234", row.getDescription());
+        assertEquals(new BigDecimal("250.00"), row.getAmount());
+    }
+
+    @Test
+    void fallsBackToAmountAndBalanceWhenFewerAmountsThanColumns() {
+        TransactionRow row = parseOne("05-03-2024 Kommunal ödəniş -40.00 960.00", FULL_COLUMNS);
+
+        assertEquals(new BigDecimal("-40.00"), row.getAmount());
+        assertNull(row.getFee());
+        assertNull(row.getVat());
+        assertEquals(new BigDecimal("960.00"), row.getBalance());
+    }
+
+    @Test
+    void lowersConfidenceWhenBalanceDoesNotFollowPreviousRow() {
+        List<TransactionRow> rows = TransactionRowParser.parse(List.of(
+                new RawRow("05.03.2024 Wolt -12.00 1 000.00", 0),
+                new RawRow("06.03.2024 Bolt -8.00 992.00", 0),
+                new RawRow("07.03.2024 Bravo -20.00 500.00", 1)), GENERIC_COLUMNS);
+
+        assertEquals(1.0, rows.get(1).getConfidence());
+        assertEquals(0.8, rows.get(2).getConfidence());
+        assertEquals(2, rows.get(2).getRowIndex());
+        assertEquals(1, rows.get(2).getPage());
+    }
+
+    private static TransactionRow parseOne(String line, List<String> columns) {
+        return TransactionRowParser.parse(List.of(new RawRow(line, 0)), columns).get(0);
+    }
+}